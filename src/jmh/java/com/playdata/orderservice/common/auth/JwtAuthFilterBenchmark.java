@@ -0,0 +1,120 @@
+package com.playdata.orderservice.common.auth;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JwtAuthFilter 한 번(요청 1건)을 통과하는 데 걸리는 시간과 할당량 측정
+// ./gradlew jmh 로 실행하고, gc.alloc.rate.norm(요청 1건당 할당 바이트)을 이전 커밋과 비교한다.
+// tokenCache=false 는 매번 서명 검사와 파싱을 하는 경우 (처음 들어온 토큰)
+// filter=baseline 은 할당을 줄이기 전의 필터(BaselineJwtAuthFilter)로, 같은 조건에서 전후를 한 번에 비교한다.
+// 운영 설정과 같이 INFO 로그는 켜 두고, 출력 비용은 빼기 위해 appender만 떼어 낸다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthFilterBenchmark {
+
+    // 벤치마크 전용 서명 키 (Base64, 512비트)
+    private static final String SECRET
+            = "C9diCgJ83uvs2rdZCHOaROnHtWO4W7b03HLZRsSZa/zhADSJ97bxARDj+0URcXvF3KA2GArJRQm+nV/p6JNUQg==";
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    @Param({"current", "baseline"})
+    public String filter;
+
+    private OncePerRequestFilter authFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.detachAndStopAllAppenders();
+
+        // JwtSigningKeys는 초기화하지 않으면 HS256 모드
+        JwtTokenProvider provider = new JwtTokenProvider(new JwtSigningKeys());
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "expiration", 30);
+        ReflectionTestUtils.setField(provider, "cacheEnabled", tokenCache);
+        ReflectionTestUtils.setField(provider, "cacheTtl", 300000L);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", 10000);
+        provider.initialize();
+
+        authFilter = "baseline".equals(filter) ? new BaselineJwtAuthFilter(provider) : new JwtAuthFilter(provider);
+
+        // 요청/응답 객체를 만드는 비용은 측정에서 빼기 위해 하나를 계속 재사용
+        // (OncePerRequestFilter는 필터를 통과하면 '이미 처리함' 표시를 지우므로 재사용해도 매번 필터가 동작한다)
+        request = new MockHttpServletRequest("GET", "/product/list");
+        request.addHeader("Authorization", "Bearer " + provider.createToken(1L, "user@test.com", "USER"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        authFilter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    // 할당을 줄이기 전의 JwtAuthFilter 처리 과정 (요청마다 토큰을 INFO로 남기고, 권한 리스트를 새로 만든다)
+    static class BaselineJwtAuthFilter extends OncePerRequestFilter {
+
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(BaselineJwtAuthFilter.class);
+
+        private final JwtTokenProvider jwtTokenProvider;
+
+        BaselineJwtAuthFilter(JwtTokenProvider jwtTokenProvider) {
+            this.jwtTokenProvider = jwtTokenProvider;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+            String bearerToken = request.getHeader("Authorization");
+            String token = StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")
+                    ? bearerToken.substring(7) : null;
+
+            log.info("JWT token: {}", token);
+
+            try {
+                if (token != null) {
+                    TokenUserInfo userInfo = jwtTokenProvider.validateAndGetTokenUserInfo(token);
+                    List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
+                    authorityList.add(new SimpleGrantedAuthority("ROLE_" + userInfo.getRole().toString()));
+                    Authentication auth = new UsernamePasswordAuthenticationToken(userInfo, "", authorityList);
+                    SecurityContextHolder.getContext().setAuthentication(auth);
+                }
+                filterChain.doFilter(request, response);
+            } catch (Exception e) {
+                log.error(e.getMessage());
+                response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            }
+        }
+    }
+
+}
@@ -22,12 +22,20 @@ public class QOrdering extends EntityPathBase<Ordering> {
 
     public static final QOrdering ordering = new QOrdering("ordering");
 
+    public final com.playdata.orderservice.common.entity.QBaseTimeEntity _super = new com.playdata.orderservice.common.entity.QBaseTimeEntity(this);
+
+    //inherited
+    public final DateTimePath<java.time.LocalDateTime> createTime = _super.createTime;
+
     public final NumberPath<Long> id = createNumber("id", Long.class);
 
     public final ListPath<OrderDetail, QOrderDetail> orderDetails = this.<OrderDetail, QOrderDetail>createList("orderDetails", OrderDetail.class, QOrderDetail.class, PathInits.DIRECT2);
 
     public final EnumPath<OrderStatus> orderStatus = createEnum("orderStatus", OrderStatus.class);
 
+    //inherited
+    public final DateTimePath<java.time.LocalDateTime> updateTime = _super.updateTime;
+
     public final com.playdata.orderservice.user.entity.QUser user;
 
     public QOrdering(String variable) {
@@ -30,12 +30,18 @@ public class QProduct extends EntityPathBase<Product> {
 
     public final StringPath imagePath = createString("imagePath");
 
+    public final EnumPath<ImageStatus> imageStatus = createEnum("imageStatus", ImageStatus.class);
+
+    public final StringPath mediumImagePath = createString("mediumImagePath");
+
     public final StringPath name = createString("name");
 
     public final NumberPath<Integer> price = createNumber("price", Integer.class);
 
     public final NumberPath<Integer> stockQuantity = createNumber("stockQuantity", Integer.class);
 
+    public final StringPath thumbnailPath = createString("thumbnailPath");
+
     //inherited
     public final DateTimePath<java.time.LocalDateTime> updateTime = _super.updateTime;
 
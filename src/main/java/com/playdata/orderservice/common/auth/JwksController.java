@@ -0,0 +1,29 @@
+package com.playdata.orderservice.common.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+// 토큰 검증용 공개 키 목록 (JWKS)
+// 다른 서비스/게이트웨이가 주기적으로 받아 가서 access token을 직접 검증한다.
+// 표준 형식 그대로 내려줘야 하므로 CommonResDto로 감싸지 않는다.
+public class JwksController {
+
+    private final JwtSigningKeys signingKeys;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // 새 키는 서명에 쓰기 전에 미리 공개되므로(publish-ahead), 그보다 짧게 캐시하도록 한다.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
+                .body(signingKeys.jwks());
+    }
+
+}
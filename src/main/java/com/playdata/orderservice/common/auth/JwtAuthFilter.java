@@ -1,5 +1,6 @@
 package com.playdata.orderservice.common.auth;
 
+import com.playdata.orderservice.user.entity.Role;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -16,8 +18,9 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @Slf4j
@@ -25,6 +28,16 @@ import java.util.List;
 // 클라이언트가 전송한 토큰을 검사하는 필터
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    // 권한(role)별 인가 정보 리스트를 미리 만들어 두고 모든 요청이 같이 쓴다. (요청마다 새로 만들지 않는다)
+    // ROLE_USER, ROLE_ADMIN (ROLE_ 접두사는 필수입니다.)
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        }
+    }
+
     private final JwtTokenProvider jwtTokenProvider;
 
     // 필터가 해야 할 일들을 작성.
@@ -34,8 +47,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // 요청과 함께 전달된 토큰을 요청 헤더에서 꺼내기
         String token = parseBearerToken(request);
 
-        log.info("JWT token: {}", token);
-
         try {
             // 토큰 위조검사 및 인증 완료
             if (token != null) {
@@ -43,12 +54,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 // 토큰 서명 위조 검사와 토큰을 파싱해서 클레임을 얻어내는 작업.
                 TokenUserInfo userInfo = jwtTokenProvider.validateAndGetTokenUserInfo(token);
 
-                // spring security에게 전달할 인가 정보 리스트를 생성. (권한 정보)
-                // 권한이 여러 개 존재할 경우 리스트로 권한 체크에 사용할 필드를 add. (권한 여러개면 여러번 add 가능)
+                // spring security에게 전달할 인가 정보 리스트 (권한 정보)
                 // 나중에 컨트롤러의 요청 메서드마다 권한을 파악하게 하기 위해 미리 저장을 해 놓는 것.
-                List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
-                // ROLE_USER, ROLE_ADMIN (ROLE_ 접두사는 필수입니다.)
-                authorityList.add(new SimpleGrantedAuthority("ROLE_" + userInfo.getRole().toString()));
+                List<GrantedAuthority> authorityList = AUTHORITIES.get(userInfo.getRole());
 
 
                 // 인증 완료 처리
@@ -78,7 +86,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         } catch (Exception e) {
             // 토큰 검증 과정에서 문제가 발생한다면 동작할 로직
-            log.error(e.getMessage());
+            log.warn("Invalid JWT token: {}", e.getMessage());
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
             response.setContentType("application/json; charset=utf-8");
             response.getWriter().write("토큰에 문제가 있습니다!");
@@ -0,0 +1,336 @@
+package com.playdata.orderservice.common.auth;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+// 비대칭 키(ES256)로 access token에 서명할 때 사용하는 키 묶음
+// jwt.signing.algorithm=ES256 일 때만 키를 불러온다. (기본값 HS256 -> 기존처럼 jwt.secretKey로 서명)
+//
+// - 키 디렉토리(jwt.keys.dir)의 {kid}.pem 파일 하나가 키 하나 (PKCS#8 개인 키 + X.509 공개 키)
+// - 공개 키들은 /.well-known/jwks.json 으로 공개해서, 다른 서비스나 게이트웨이가 이 서버에 묻지 않고 토큰을 검증할 수 있다.
+// - 새 키는 만들자마자 JWKS에 올리지만, 다른 서비스가 JWKS를 다시 받아 갈 시간(publish-ahead)이 지난 뒤부터 서명에 사용한다.
+// - 키를 만든 시각은 kid 앞부분(yyyyMMdd'T'HHmmss, UTC)으로 판단한다. (파일 수정 시각은 복사/배포할 때 바뀔 수 있다)
+// - 예전 키는 더 새 키가 서명을 넘겨받은 뒤 그 키로 서명한 토큰이 모두 만료되어야(토큰 수명 + retire-grace) 폐기한다.
+// - 디렉토리를 주기적으로 다시 읽기 때문에 서버가 여러 대라면 같은 디렉토리(또는 같은 시크릿)를 공유하면 된다.
+//   키 생성/폐기는 디렉토리의 잠금 파일을 잡은 서버 한 대만 하고, 잠금을 잡은 뒤 디렉토리를 다시 읽어서 이미 만들어졌는지 확인한다.
+public class JwtSigningKeys {
+
+    private static final String PRIVATE_KEY = "PRIVATE KEY";
+    private static final String PUBLIC_KEY = "PUBLIC KEY";
+    private static final DateTimeFormatter KID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String LOCK_FILE = ".rotation.lock";
+    // FileLock은 같은 JVM 안에서 겹쳐 잡으면 기다리지 않고 예외가 나므로, JVM 안에서는 먼저 이 객체로 줄을 세운다.
+    private static final Object LOCAL_LOCK = new Object();
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${jwt.keys.dir:./jwt-keys}")
+    private String dir;
+
+    // 키가 하나도 없으면 새로 만든다.
+    @Value("${jwt.keys.generate-if-missing:true}")
+    private boolean generateIfMissing;
+
+    // 자동 교체 주기 (0이면 자동 교체하지 않고, 디렉토리에 새 키 파일을 넣어서 교체)
+    @Value("${jwt.keys.rotation-interval-ms:0}")
+    private long rotationInterval;
+
+    // 새 키를 JWKS에 올린 뒤 서명에 쓰기 시작할 때까지 기다리는 시간
+    @Value("${jwt.keys.publish-ahead-ms:300000}")
+    private long publishAhead;
+
+    // access token 수명 (분). 예전 키는 마지막으로 서명한 토큰이 만료될 때까지 검증에 사용한다.
+    @Value("${jwt.expiration:30}")
+    private int expiration;
+
+    // 서버 간 시각 차이와 디렉토리를 다시 읽는 주기를 감안한 여유 시간
+    @Value("${jwt.keys.retire-grace-ms:300000}")
+    private long retireGrace;
+
+    // 현재 키 묶음 (다시 읽을 때 통째로 바꾼다)
+    private volatile KeySet keySet = KeySet.EMPTY;
+
+    public boolean isEnabled() {
+        return "ES256".equalsIgnoreCase(algorithm);
+    }
+
+    @PostConstruct
+    public void initialize() throws IOException, GeneralSecurityException {
+        if (!isEnabled()) {
+            return;
+        }
+        Files.createDirectories(Paths.get(dir));
+        reload();
+        if (keySet.keys.isEmpty()) {
+            if (!generateIfMissing) {
+                throw new IllegalStateException("JWT 서명 키가 없습니다: " + dir);
+            }
+            // 동시에 뜬 다른 서버가 먼저 만들었다면 그 키를 쓴다.
+            maintain(true);
+        }
+    }
+
+    /**
+     * 지금 서명에 사용할 키
+     */
+    public SigningKey getSigningKey() {
+        SigningKey key = keySet.signingKey;
+        if (key == null) {
+            throw new IllegalStateException("JWT 서명 키가 없습니다.");
+        }
+        return key;
+    }
+
+    /**
+     * 토큰 헤더의 kid에 해당하는 공개 키 (없으면 null)
+     */
+    public PublicKey findPublicKey(String kid) {
+        SigningKey key = keySet.keys.get(kid);
+        return key == null ? null : key.getPublicKey();
+    }
+
+    /**
+     * JWKS 형식(RFC 7517)의 공개 키 목록
+     */
+    public Map<String, Object> jwks() {
+        return Map.of("keys", keySet.jwks);
+    }
+
+    // 키 디렉토리를 다시 읽고, 교체 주기가 지났으면 새 키를 만든다.
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            reload();
+            if (rotationDue() || !retired(keySet.sorted).isEmpty()) {
+                maintain(false);
+            }
+        } catch (Exception e) {
+            log.error("Could not refresh JWT signing keys: {}", e.getMessage());
+        }
+    }
+
+    // 잠금 파일을 잡은 서버 한 대만 키를 만들고 예전 키를 지운다.
+    // 잠금을 기다리는 동안 다른 서버가 이미 새 키를 만들었을 수 있으므로 디렉토리를 다시 읽고 확인한다.
+    private void maintain(boolean generateIfEmpty) throws IOException, GeneralSecurityException {
+        Path directory = Paths.get(dir);
+        synchronized (LOCAL_LOCK) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                reload();
+                if ((generateIfEmpty && keySet.keys.isEmpty()) || rotationDue()) {
+                    generate();
+                    reload();
+                }
+                for (SigningKey key : retired(keySet.sorted)) {
+                    log.info("Retiring JWT signing key {}", key.getKid());
+                    Files.deleteIfExists(directory.resolve(key.getKid() + ".pem"));
+                }
+                reload();
+            }
+        }
+    }
+
+    private boolean rotationDue() {
+        SigningKey newest = keySet.newest;
+        return rotationInterval > 0 && newest != null
+                && System.currentTimeMillis() - newest.getCreatedAt() >= rotationInterval;
+    }
+
+    // 더 새 키가 서명을 넘겨받고(만든 시각 + publish-ahead) 토큰 수명 + 여유 시간이 지난 키
+    // sorted: 최근에 만든 키부터 정렬된 목록 (가장 최근 키는 폐기하지 않는다)
+    private List<SigningKey> retired(List<SigningKey> sorted) {
+        long now = System.currentTimeMillis();
+        long lifetime = expiration * 60 * 1000L;
+        List<SigningKey> retired = new ArrayList<>();
+        for (int i = 1; i < sorted.size(); i++) {
+            long supersededAt = sorted.get(i - 1).getCreatedAt() + publishAhead;
+            if (now >= supersededAt + lifetime + retireGrace) {
+                retired.add(sorted.get(i));
+            }
+        }
+        return retired;
+    }
+
+    private void reload() throws IOException, GeneralSecurityException {
+        List<SigningKey> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Paths.get(dir))) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".pem")).toList()) {
+                loaded.add(read(file));
+            }
+        }
+        // 최근에 만든 키부터
+        loaded.sort(Comparator.comparingLong(SigningKey::getCreatedAt).reversed());
+        KeySet next = new KeySet(loaded, publishAhead);
+
+        SigningKey previous = keySet.signingKey;
+        keySet = next;
+        if (next.signingKey != null && (previous == null || !previous.getKid().equals(next.signingKey.getKid()))) {
+            log.info("JWT signing key: {} ({} keys published)", next.signingKey.getKid(), next.keys.size());
+        }
+    }
+
+    private SigningKey read(Path file) throws IOException, GeneralSecurityException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        KeyFactory keyFactory = KeyFactory.getInstance("EC");
+        PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemBlock(pem, PRIVATE_KEY, file)));
+        PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pemBlock(pem, PUBLIC_KEY, file)));
+
+        String fileName = file.getFileName().toString();
+        String kid = fileName.substring(0, fileName.length() - ".pem".length());
+        return new SigningKey(kid, privateKey, (ECPublicKey) publicKey, createdAt(kid, file));
+    }
+
+    // kid 앞부분의 시각 (직접 넣은 키처럼 형식이 다르면 파일 수정 시각)
+    private long createdAt(String kid, Path file) throws IOException {
+        if (kid.length() >= 15) {
+            try {
+                return LocalDateTime.parse(kid.substring(0, 15), KID_FORMAT).toInstant(ZoneOffset.UTC).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // 아래에서 파일 수정 시각 사용
+            }
+        }
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private byte[] pemBlock(String pem, String type, Path file) {
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int from = pem.indexOf(begin);
+        int to = pem.indexOf(end);
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException(type + " 블록이 없습니다: " + file);
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(from + begin.length(), to));
+    }
+
+    // P-256 키를 새로 만들어서 {kid}.pem 으로 저장 (maintain()에서 잠금을 잡은 상태로 호출)
+    private void generate() throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        String kid = LocalDateTime.now(ZoneOffset.UTC).format(KID_FORMAT) + "-" + Integer.toHexString(new SecureRandom().nextInt(0x10000));
+        Base64.Encoder encoder = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII));
+        String pem = "-----BEGIN " + PRIVATE_KEY + "-----\n"
+                + encoder.encodeToString(keyPair.getPrivate().getEncoded())
+                + "\n-----END " + PRIVATE_KEY + "-----\n"
+                + "-----BEGIN " + PUBLIC_KEY + "-----\n"
+                + encoder.encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END " + PUBLIC_KEY + "-----\n";
+
+        // 다른 서버가 반쯤 쓰인 파일을 읽지 않도록 임시 파일에 쓰고 이름을 바꾼다.
+        Path directory = Paths.get(dir);
+        Path temp = Files.createTempFile(directory, "." + kid, ".tmp");
+        try {
+            restrictPermissions(temp);
+            Files.writeString(temp, pem, StandardCharsets.US_ASCII);
+            Files.move(temp, directory.resolve(kid + ".pem"), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.info("Generated JWT signing key {}", kid);
+    }
+
+    // 개인 키 파일은 소유자만 읽을 수 있도록 (POSIX 파일 시스템이 아니면 건너뜀)
+    private void restrictPermissions(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Windows 등
+        }
+    }
+
+    @Getter
+    public static class SigningKey {
+        private final String kid;
+        private final PrivateKey privateKey;
+        private final ECPublicKey publicKey;
+        private final long createdAt;
+        // JWKS에 올릴 공개 키 정보 (미리 만들어 둔다)
+        private final Map<String, Object> jwk;
+
+        SigningKey(String kid, PrivateKey privateKey, ECPublicKey publicKey, long createdAt) {
+            this.kid = kid;
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.createdAt = createdAt;
+
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", kid);
+            jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+            jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+            this.jwk = Collections.unmodifiableMap(jwk);
+        }
+
+        // 좌표는 32바이트 big-endian을 Base64url(패딩 없음)로 (BigInteger의 부호 바이트는 떼고, 짧으면 앞을 0으로 채운다)
+        private static String coordinate(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            byte[] fixed = new byte[32];
+            int length = Math.min(bytes.length, 32);
+            System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+        }
+    }
+
+    private static class KeySet {
+        static final KeySet EMPTY = new KeySet(List.of(), 0);
+
+        private final List<SigningKey> sorted;
+        private final Map<String, SigningKey> keys = new LinkedHashMap<>();
+        private final List<Map<String, Object>> jwks = new ArrayList<>();
+        private final SigningKey newest;
+        private final SigningKey signingKey;
+
+        // keys: 최근에 만든 키부터 정렬된 목록
+        KeySet(List<SigningKey> sorted, long publishAhead) {
+            this.sorted = List.copyOf(sorted);
+            long now = System.currentTimeMillis();
+            SigningKey published = null;
+            for (SigningKey key : sorted) {
+                keys.put(key.getKid(), key);
+                jwks.add(key.getJwk());
+                if (published == null && now - key.getCreatedAt() >= publishAhead) {
+                    published = key;
+                }
+            }
+            this.newest = sorted.isEmpty() ? null : sorted.get(0);
+            // 충분히 오래 공개된 키 중 가장 최근 키로 서명 (그런 키가 없다면 가장 최근 키)
+            this.signingKey = published != null ? published : newest;
+        }
+    }
+
+}
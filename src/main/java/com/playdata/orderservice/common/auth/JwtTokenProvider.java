@@ -1,20 +1,44 @@
 package com.playdata.orderservice.common.auth;
 
+import com.playdata.orderservice.common.cache.LocalTtlCache;
 import com.playdata.orderservice.user.entity.Role;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 // 역할: 토큰을 발급하고, 서명 위조를 검사하는 객체
+// jwt.signing.algorithm=ES256 이면 access token을 비대칭 키로 서명하고 헤더에 kid를 넣는다. (JwtSigningKeys 참고)
+// 다른 서비스는 /.well-known/jwks.json 의 공개 키로 토큰을 직접 검증할 수 있다.
 public class JwtTokenProvider {
 
+    // 토큰 해시 계산용 (MessageDigest는 스레드에 안전하지 않아서 스레드마다 하나씩)
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    // 비대칭 서명 키 (ES256 모드일 때만 사용)
+    private final JwtSigningKeys signingKeys;
+
     // 서명에 사용할 값 (512비트 이상의 랜덤 문자열을 권장)
     // yml에 있는 값 땡겨오기 (properties 방식으로 선언)
     @Value("${jwt.secretKey}")
@@ -23,11 +47,47 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int expiration;
 
-    @Value("${jwt.secretKeyRt}")
-    private String secreKeyRt;
-
-    @Value("${jwt.expirationRt}")
-    private int expirationRt;
+    // 검증이 끝난 토큰을 기억해 두는 캐시 (같은 토큰이 요청마다 계속 들어오므로 서명 검사와 파싱을 건너뛴다)
+    @Value("${jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    // 토큰 만료 시각과 이 시간 중 짧은 쪽까지만 캐시에 둔다.
+    @Value("${jwt.cache.ttl-ms:300000}")
+    private long cacheTtl;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // 문자열 키를 매번 디코딩하지 않도록 서명 키와 파서를 한 번만 만들어 둔다. (JwtParser는 불변 객체라 스레드에 안전)
+    private Key signingKey;
+    private JwtParser parser;
+
+    // 토큰 해시(SHA-256) -> 토큰 안의 유저 정보
+    // 원본 토큰 대신 해시를 키로 써서 메모리에 토큰을 그대로 남기지 않는다.
+    private LocalTtlCache<String, TokenUserInfo> verifiedTokens;
+
+    @PostConstruct
+    public void initialize() {
+        // 기존 signWith(HS256, 문자열)과 같은 방식 (문자열을 Base64로 디코딩한 바이트가 키)
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(secretKey), SignatureAlgorithm.HS256.getJcaName());
+        if (signingKeys.isEnabled()) {
+            // 토큰 헤더의 kid로 검증할 공개 키를 찾는다.
+            parser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            return resolveVerificationKey(header.getKeyId());
+                        }
+                    })
+                    .build();
+        } else {
+            parser = Jwts.parserBuilder()
+                    // 토큰 발급자의 발급 당시의 서명을 넣어줌.
+                    .setSigningKey(signingKey)
+                    .build();
+        }
+        verifiedTokens = new LocalTtlCache<>(cacheTtl, cacheMaxSize);
+    }
 
 
     // 토큰 생성 메서드
@@ -36,87 +96,99 @@ public class JwtTokenProvider {
                 "iss": "서비스 이름(발급자)",
                 "exp": "2023-12-27(만료일자)",
                 "iat": "2023-11-27(발급일자)",
-                "email": "로그인한 사람 이메일",
+                "sub": "로그인한 사람 이메일",
+                "uid": "로그인한 사람 id",
                 "role": "Premium"
                 ...
                 == 서명
             }
      */
-    public String createToken(String email, String role) {
-        // Claims: 페이로드에 들어갈 사용자 정보
-        Claims claims = Jwts.claims().setSubject(email);
-        claims.put("role", role);
-        Date date = new Date();
-
-        return Jwts.builder()
-                .setClaims(claims)
-                .setIssuedAt(date)
-                //현재 시간 밀리초에 30분을 더한 시간을 만료시간으로 세팅
-                .setExpiration(new Date(date.getTime() + expiration * 60 * 1000L))
-                .signWith(SignatureAlgorithm.HS256, secretKey)
-                .compact();
-    }
-
-    public String createRefreshToken(String email, String role) {
+    public String createToken(Long id, String email, String role) {
         // Claims: 페이로드에 들어갈 사용자 정보
         Claims claims = Jwts.claims().setSubject(email);
+        // 회원 id도 넣어 두면 요청을 처리할 때 이메일로 회원을 다시 조회하지 않아도 된다.
+        claims.put("uid", id);
         claims.put("role", role);
         Date date = new Date();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(date)
                 //현재 시간 밀리초에 30분을 더한 시간을 만료시간으로 세팅
-                .setExpiration(new Date(date.getTime() + expirationRt * 60 * 1000L))
-                .signWith(SignatureAlgorithm.HS256, secreKeyRt)
-                .compact();
+                .setExpiration(new Date(date.getTime() + expiration * 60 * 1000L));
+
+        if (signingKeys.isEnabled()) {
+            JwtSigningKeys.SigningKey key = signingKeys.getSigningKey();
+            builder.setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+                    .signWith(key.getPrivateKey(), SignatureAlgorithm.ES256);
+        } else {
+            builder.signWith(signingKey, SignatureAlgorithm.HS256);
+        }
+        return builder.compact();
     }
 
-
     /**
      * 클라이언트가 전송한 토큰을 디코딩하여 토큰의 위조 여부를 확인
      * 토큰을 json으로 파싱해서 클레임(토큰 정보)을 리턴
+     * 한 번 검증한 토큰은 만료되기 전까지(최대 jwt.cache.ttl-ms) 캐시된 결과를 리턴한다.
      *
      * @param token - 필터가 전달해 준 토큰
      * @return - 토큰 안에 있는 인증된 유저 정보를 반환
      */
     public TokenUserInfo validateAndGetTokenUserInfo(String token) throws Exception {
-        Claims claims = Jwts.parserBuilder()
-                // 토큰 발급자의 발급 당시의 서명을 넣어줌.
-                .setSigningKey(secretKey)
-                // 서명 위조 검사: 위조된 경우에는 예외가 발생합니다.
-                // 위조되지 않았다면 payload를 리턴.
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        log.info("claims : {}", claims);
-
-        return TokenUserInfo.builder()
+        if (!cacheEnabled) {
+            return parse(token, null);
+        }
+
+        String cacheKey = hash(token);
+        TokenUserInfo cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        return parse(token, cacheKey);
+    }
+
+    private TokenUserInfo parse(String token, String cacheKey) {
+        // 서명 위조 검사: 위조된 경우에는 예외가 발생합니다.
+        // 위조되지 않았다면 payload를 리턴.
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        log.debug("claims : {}", claims);
+
+        TokenUserInfo userInfo = TokenUserInfo.builder()
+                .id(claims.get("uid", Long.class))
                 .email(claims.getSubject())
                 // 클레임이 get 할 수 있는 타입이 정해져 있어서 Role을 못 꺼냅니다.
                 // 일단 String으로 꺼내고, 다시 Role 타입으로 포장해서 집어 넣겠습니다.
                 .role(Role.valueOf(claims.get("role", String.class)))
                 .build();
 
+        // 만료 시각이 지나면 캐시에서도 사라지도록 남은 시간만큼만 저장
+        if (cacheKey != null && claims.getExpiration() != null) {
+            long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+            if (remaining > 0) {
+                verifiedTokens.put(cacheKey, userInfo, remaining);
+            }
+        }
+        return userInfo;
+    }
 
+    // kid가 없는 토큰은 ES256으로 바꾸기 전에 HS256으로 발급된 토큰 (만료될 때까지는 그대로 인정)
+    // HS256 토큰에 공개 키를 쓰거나 그 반대인 경우는 jjwt가 키 종류를 확인해서 거부한다.
+    private Key resolveVerificationKey(String kid) {
+        if (kid == null) {
+            return signingKey;
+        }
+        PublicKey publicKey = signingKeys.findPublicKey(kid);
+        if (publicKey == null) {
+            throw new JwtException("알 수 없는 서명 키입니다: " + kid);
+        }
+        return publicKey;
+    }
 
+    private String hash(String token) {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -9,6 +9,7 @@ import lombok.*;
 @Builder
 public class TokenUserInfo {
 
+    private Long id; // uid 클레임 (uid가 없는 예전 토큰이면 null)
     private String email;
     private Role role;
 
@@ -0,0 +1,160 @@
+package com.playdata.orderservice.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// 서버 메모리에 두는 간단한 TTL 캐시
+// 저장한 지 ttl이 지난 값은 없는 것으로 보고 다시 불러온다.
+// 최대 개수를 넘으면 가장 오래 사용하지 않은 값 하나를 지운다. (접근 순서 LinkedHashMap이라 O(1))
+// 만료된 값은 조회할 때 지운다.
+// 조회도 접근 순서를 바꾸므로 모든 연산을 lock 하나로 보호한다. (lock 안에서는 map 연산만 하므로 금방 풀린다)
+public class LocalTtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    // 무효화할 때마다 증가
+    // 값을 불러오는 도중에 무효화되었다면, 불러온 (이미 낡은) 값은 저장하지 않는다.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public LocalTtlCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LocalTtlCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 캐시에 있으면 그 값을, 없거나 만료되었으면 loader로 불러와서 저장한 뒤 리턴
+     * loader가 null을 리턴하면 저장하지 않는다.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+        V value = loader.apply(key);
+        if (value != null && generation.get() == startGeneration) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        Entry<V> entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired()) {
+                entries.remove(key);
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    /**
+     * 이 값만 따로 유지 시간을 정해서 저장 (값 자체에 만료 시각이 있을 때 사용)
+     * 캐시의 기본 ttl보다 길게 잡아도 기본 ttl까지만 유지된다.
+     */
+    public void put(K key, V value, long ttlMillis) {
+        long ttl = Math.min(ttlMillis, this.ttlMillis);
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis() + ttl);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 조건에 맞는 값만 골라서 무효화 (값의 내용으로 찾아야 할 때 사용)
+     */
+    public void invalidateIf(Predicate<? super V> condition) {
+        generation.incrementAndGet();
+        lock.lock();
+        try {
+            entries.values().removeIf(entry -> condition.test(entry.value));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+}
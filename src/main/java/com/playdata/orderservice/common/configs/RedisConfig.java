@@ -8,6 +8,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -52,6 +54,25 @@ public class RedisConfig {
         return template;
     }
 
+    // 재고 카운터처럼 숫자를 문자열 그대로 다뤄야 하는 경우 사용 (Lua 스크립트에서 DECRBY, HINCRBY 등)
+    // JSON 직렬화를 거치면 Redis가 숫자로 인식하지 못하기 때문에 따로 등록.
+    @Bean
+    @Qualifier("stock-template")
+    public StringRedisTemplate stockRedisTemplate(
+            @Qualifier("user-redis-factory") RedisConnectionFactory factory) {
+        return new StringRedisTemplate(factory);
+    }
+
+    // Redis pub/sub 채널을 구독하는 리스너들을 관리하는 컨테이너
+    // (여러 서버가 SSE 알림을 주고받을 때 사용)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            @Qualifier("user-redis-factory") RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
+
 
 
 }
@@ -42,7 +42,8 @@ public class SecurityConfig {
             auth
 //                    .requestMatchers("/user/list").hasAnyRole("ADMIN")
                     .requestMatchers("/user/create", "/user/doLogin",
-                            "/user/refresh", "/product/list", "/").permitAll()
+                            "/user/refresh", "/product/list", "/images/**",
+                            "/.well-known/jwks.json", "/").permitAll()
                     .anyRequest().authenticated();
         })
                 // 커스텀 필터를 등록.
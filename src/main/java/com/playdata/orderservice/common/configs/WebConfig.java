@@ -1,16 +1,63 @@
 package com.playdata.orderservice.common.configs;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+
+    // 비동기 응답(StreamingResponseBody 등)의 최대 유지 시간
+    // 주문 내보내기처럼 오래 걸리는 다운로드가 서블릿 컨테이너 기본값(30초)에 잘리지 않도록 넉넉하게.
+    @Value("${web.async.timeout-ms:1800000}")
+    private long asyncTimeout;
+
+    // 동시에 진행할 수 있는 스트리밍 응답 수 (요청마다 스레드를 새로 만들지 않도록 풀로 제한)
+    @Value("${web.async.pool-size:8}")
+    private int asyncPoolSize;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // 스트리밍 응답 전용 스레드 풀
+    // 빈으로 등록하면 스프링 부트가 기본 applicationTaskExecutor를 만들지 않아서 @Async 등도 이 풀을 쓰게 되므로,
+    // 빈으로 등록하지 않고 여기서 직접 만들고 종료한다. (종료할 때 진행 중인 다운로드는 잠시 기다려 준다)
+    private ThreadPoolTaskExecutor webAsyncTaskExecutor;
+
+    private ThreadPoolTaskExecutor webAsyncTaskExecutor() {
+        if (webAsyncTaskExecutor == null) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(asyncPoolSize);
+            executor.setMaxPoolSize(asyncPoolSize);
+            executor.setQueueCapacity(asyncPoolSize * 4);
+            executor.setThreadNamePrefix("web-async-");
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(30);
+            executor.initialize();
+            webAsyncTaskExecutor = executor;
+        }
+        return webAsyncTaskExecutor;
+    }
+
+    @PreDestroy
+    public void shutdownAsyncExecutor() {
+        if (webAsyncTaskExecutor != null) {
+            webAsyncTaskExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(webAsyncTaskExecutor());
+        configurer.setDefaultTimeout(asyncTimeout);
+    }
+
 }
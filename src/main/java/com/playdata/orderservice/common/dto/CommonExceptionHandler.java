@@ -1,7 +1,9 @@
 package com.playdata.orderservice.common.dto;
 
+import com.playdata.orderservice.product.service.StockTemporarilyUnavailableException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -50,6 +52,16 @@ public class CommonExceptionHandler {
         return new ResponseEntity<>(commonErrorDto, HttpStatus.UNAUTHORIZED);
     }
 
+    // 재고를 지금 확인할 수 없을 때 (잠시 후 다시 시도하면 되는 상황)
+    @ExceptionHandler(StockTemporarilyUnavailableException.class)
+    public ResponseEntity<CommonErrorDto> stockUnavailableHandler(StockTemporarilyUnavailableException e){
+        log.warn("Stock temporarily unavailable: {}", e.getMessage());
+        CommonErrorDto commonErrorDto = new CommonErrorDto(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(commonErrorDto);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CommonErrorDto> exceptionHandler(Exception e){
         e.printStackTrace();
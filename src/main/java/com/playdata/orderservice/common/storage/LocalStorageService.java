@@ -0,0 +1,103 @@
+package com.playdata.orderservice.common.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+// 서버의 로컬 디렉토리에 저장 (S3 없이 오프라인/사내 서버에서 운영하거나 테스트할 때 사용)
+// 저장한 파일은 /images/** 경로로 내려받을 수 있다. (LocalStorageController 참고)
+public class LocalStorageService implements StorageService {
+
+    // 쓰는 중인 임시 파일 접두사 (이 이름으로 시작하는 파일은 내려주지 않는다)
+    private static final String TEMP_PREFIX = ".upload-";
+
+    @Value("${storage.local.dir:./upload}")
+    private String dir;
+
+    // 업로드된 파일의 url 앞부분
+    @Value("${storage.local.base-url:http://localhost:8181/images/}")
+    private String baseUrl;
+
+    private Path root;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        root = Paths.get(dir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        log.info("Local storage directory: {}", root);
+    }
+
+    // 커널 안에서 바로 복사하도록 FileChannel.transferTo 사용 (바이트가 JVM 힙을 거치지 않는다)
+    // 같은 디렉토리의 임시 파일에 다 쓴 뒤 이름을 바꾸기 때문에, 내려받는 쪽에서 반쯤 쓰인 파일을 보는 일이 없다.
+    @Override
+    public String upload(Path file, String key, String contentType) throws IOException {
+        Path target = resolve(key);
+        Path temp = Files.createTempFile(root, TEMP_PREFIX, ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        // 키의 각 경로 조각을 인코딩해서 url을 만든다. (공백, #, ?, %, 한글 등이 있어도 url이 깨지지 않도록)
+        return baseUrl + UriUtils.encodePath(key, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        if (url == null || !url.startsWith(baseUrl)) {
+            return;
+        }
+        Files.deleteIfExists(resolve(UriUtils.decode(url.substring(baseUrl.length()), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 저장된 파일을 찾는다.
+     *
+     * @return - 파일 경로 (없거나, 쓰는 중인 임시 파일이거나, 저장소 밖의 경로면 null)
+     */
+    public Path find(String key) {
+        Path path;
+        try {
+            path = resolve(key);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (path.getFileName().toString().startsWith(TEMP_PREFIX) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return path;
+    }
+
+    // 저장소 디렉토리 밖의 경로("../" 등)는 허용하지 않는다.
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("잘못된 파일명입니다: " + key);
+        }
+        return path;
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.playdata.orderservice.common.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+// S3 버킷에 저장 (클라이언트 설정은 AwsS3Config 참고)
+// 파일을 힙에 올리지 않고 디스크에서 바로 읽어서 보내며, 큰 파일은 조각으로 나눠서 병렬로 보낸다.
+public class S3StorageService implements StorageService {
+
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3Client s3Client;
+
+    @Value("${spring.cloud.aws.s3.bucket}")
+    private String bucketName;
+
+    // path-style 주소(http://localhost:9000/버킷/키)라면 삭제할 때 경로에서 버킷 이름을 떼어 낸다.
+    @Value("${spring.cloud.aws.s3.path-style-access-enabled:false}")
+    private boolean pathStyleAccess;
+
+    // 이 크기보다 큰 파일은 여러 조각(part)으로 나눠서 병렬로 업로드 (S3 multipart upload)
+    @Value("${aws.s3.upload.multipart-threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    // 조각 하나의 크기 (S3 규칙상 마지막 조각을 제외하고 최소 5MB)
+    @Value("${aws.s3.upload.part-size-bytes:8388608}")
+    private long partSize;
+
+    // 동시에 업로드할 조각 수
+    @Value("${aws.s3.upload.parallelism:4}")
+    private int parallelism;
+
+    // 조각 업로드용 스레드 풀
+    private ExecutorService partUploadExecutor;
+
+    @PostConstruct
+    public void initialize() {
+        partSize = Math.max(partSize, MIN_PART_SIZE);
+        AtomicInteger threadCount = new AtomicInteger();
+        partUploadExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partUploadExecutor.shutdown();
+    }
+
+    @Override
+    public String upload(Path file, String key, String contentType) throws IOException {
+        long size = Files.size(file);
+
+        if (size <= multipartThreshold) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build();
+            s3Client.putObject(request, RequestBody.fromFile(file));
+        } else {
+            multipartUpload(file, size, key, contentType);
+        }
+
+        return s3Client.utilities()
+                .getUrl(b -> b.bucket(bucketName).key(key))
+                .toString();
+    }
+
+    // 버킷에 오브젝트를 지우기 위해서는 키값을 줘야 하는데, DB에 저장되어 있는 건 키가 아니라 URL 임.
+    // 원본: https://ordersvc-img0807.s3.ap-northeast-2.amazonaws.com/82064e07-5c49-4606-b517-0edc43774b1d_add-250x140.jpg
+    // 결과: 82064e07-5c49-4606-b517-0edc43774b1d_add-250x140.jpg
+    @Override
+    public void delete(String url) throws Exception {
+        log.info("Deleting file {}", url);
+
+        // getPath()를 통해 Key 값 앞에 "/"까지 포함해서 제거.
+        // 파일명에 한글이 포함되어 있을 경우, UTF-8 decoding 적용
+        String decodingKey = URLDecoder.decode(new URL(url).getPath(), StandardCharsets.UTF_8);
+        String key = decodingKey.substring(1);
+        if (pathStyleAccess && key.startsWith(bucketName + "/")) {
+            key = key.substring(bucketName.length() + 1);
+        }
+        log.info("Deleting key {}", key);
+
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    // 조각 업로드 시작 -> 조각들을 병렬로 업로드 -> 완료 (실패하면 올라간 조각들을 정리하도록 중단 요청)
+    private void multipartUpload(Path file, long size, String key, String contentType) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        List<Future<CompletedPart>> futures = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                int number = partNumber;
+                long position = offset;
+                futures.add(partUploadExecutor.submit(
+                        () -> uploadPart(file, uploadId, key, number, position, length)));
+            }
+
+            List<CompletedPart> parts = new ArrayList<>();
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            log.info("Uploaded {} ({} bytes) in {} parts", key, size, parts.size());
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("S3 multipart upload failed: " + key, e);
+        }
+    }
+
+    // 파일의 [position, position + length) 구간을 조각 하나로 업로드
+    // 재시도할 때마다 새 스트림을 열 수 있도록 ContentStreamProvider로 넘긴다.
+    private CompletedPart uploadPart(Path file, String uploadId, String key,
+                                     int partNumber, long position, long length) {
+        ContentStreamProvider provider = () -> {
+            try {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channel.position(position);
+                return new BoundedInputStream(Channels.newInputStream(channel), length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(length)
+                        .build(),
+                RequestBody.fromContentProvider(provider, length, "application/octet-stream"));
+
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build();
+    }
+
+    // 정해진 길이까지만 읽는 스트림 (파일의 한 구간을 조각으로 보낼 때 사용)
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+}
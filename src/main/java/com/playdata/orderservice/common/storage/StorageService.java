@@ -0,0 +1,27 @@
+package com.playdata.orderservice.common.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 업로드 파일(상품 이미지 등)을 저장하는 저장소
+// storage.type 설정값에 따라 구현체가 하나만 빈으로 등록된다.
+// - s3 (기본값): AWS S3 (또는 S3 호환 저장소)
+// - local: 서버의 로컬 디렉토리 (S3 없이 개발/테스트할 때)
+public interface StorageService {
+
+    /**
+     * 디스크에 있는 파일을 저장소에 업로드
+     *
+     * @param file        - 업로드할 파일
+     * @param key         - 저장소 안에서 사용할 파일명
+     * @param contentType - 파일의 MIME 타입 (모르면 null)
+     * @return - 업로드된 파일에 접근할 수 있는 url
+     */
+    String upload(Path file, String key, String contentType) throws IOException;
+
+    /**
+     * 업로드할 때 리턴했던 url의 파일을 삭제
+     */
+    void delete(String url) throws Exception;
+
+}
@@ -3,17 +3,22 @@ package com.playdata.orderservice.ordering.controller;
 import com.playdata.orderservice.common.auth.TokenUserInfo;
 import com.playdata.orderservice.common.dto.CommonResDto;
 import com.playdata.orderservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderservice.ordering.dto.OrderingPageResDto;
 import com.playdata.orderservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderservice.ordering.dto.OrderingSearchDto;
 import com.playdata.orderservice.ordering.entity.Ordering;
+import com.playdata.orderservice.ordering.service.OrderingExportService;
 import com.playdata.orderservice.ordering.service.OrderingService;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,6 +29,7 @@ import java.util.List;
 public class OrderingController {
 
     private final OrderingService orderingService;
+    private final OrderingExportService orderingExportService;
 
     @PostMapping("/create")
     public ResponseEntity<?> orderingCreate(
@@ -51,16 +57,39 @@ public class OrderingController {
     }
 
     // 전체 주문 조회 (ADMIN만 가능한 요청)
+    // 주문 id 기준 커서 페이징: /order/list?size=20 -> 응답의 nextCursor를 다음 요청의 cursor로 전달
+    // 상태, 주문자 이메일, 주문 날짜 범위로 필터링 가능 (status, userEmail, from, to)
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/list")
-    public ResponseEntity<?> list() {
-        List<OrderingListResDto> dtos = orderingService.orderList();
+    public ResponseEntity<?> list(OrderingSearchDto searchDto) {
+        log.info("/order/list: GET, dto: {}", searchDto);
+        OrderingPageResDto dtos = orderingService.orderList(searchDto);
         return new ResponseEntity<>(
                 new CommonResDto(HttpStatus.OK, "전체 주문 조회 완료", dtos),
                 HttpStatus.OK
         );
     }
 
+    // 주문 내보내기 (ADMIN) - 보고서용으로 조건에 맞는 전체 주문을 내려받는다.
+    // /order/export?format=ndjson (기본값) 또는 format=csv, 필터는 /order/list와 동일
+    // 응답을 한 번에 만들지 않고 DB에서 읽는 대로 흘려보내기 때문에 CommonResDto로 감싸지 않는다.
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            OrderingSearchDto searchDto) {
+        log.info("/order/export: GET, format: {}, dto: {}", format, searchDto);
+        OrderingExportService.Format exportFormat = OrderingExportService.Format.from(format);
+
+        StreamingResponseBody body = out -> orderingExportService.export(exportFormat, searchDto, out);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     // 주문 상태를 취소로 변경하는 요청 (ADMIN)
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping("/{id}/cancel")
@@ -1,81 +1,206 @@
 package com.playdata.orderservice.ordering.controller;
 
 import com.playdata.orderservice.common.auth.TokenUserInfo;
+import com.playdata.orderservice.ordering.dto.OrderCreatedEvent;
 import com.playdata.orderservice.ordering.dto.OrderingListResDto;
-import com.playdata.orderservice.ordering.entity.Ordering;
+import com.playdata.orderservice.ordering.service.SseReplayBuffer;
+import com.playdata.orderservice.ordering.service.SseSubscriptionRegistry;
+import com.playdata.orderservice.ordering.service.SseSubscriptionRegistry.Subscription;
+import com.playdata.orderservice.user.entity.Role;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import org.yaml.snakeyaml.emitter.Emitter;
 
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 @RestController
+@RequiredArgsConstructor
 @Slf4j
 // Sse(Server Sent Event) Controller
 public class SseController {
 
-    // 구독을 요청한 각 사용자의 이메일을 키로 하여 emitter 객체를 저장.
-    // ConcurrentHashMap: 멀티 스레드 기반 해시맵 (HashMap은 싱글 스레드 기반)
-    Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    // heartbeat 전송 주기 (초)
+    // 클라이언트에서 사용하는 EventSourcePolyfill이 45초 동안 활동이 없으면 자체적으로 연결을 끊기 때문에 그보다 짧게.
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 30;
 
+    // 연결(구독) 정보를 토픽별로 관리하는 저장소
+    private final SseSubscriptionRegistry registry;
+
+    // 재연결 시 놓친 이벤트를 다시 보내기 위한 버퍼
+    private final SseReplayBuffer replayBuffer;
+
+    // 모든 구독자가 함께 쓰는 heartbeat 스레드 (구독자 수와 상관없이 스레드는 1개)
+    private final ScheduledExecutorService heartbeatScheduler
+            = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sse-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+                HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stopHeartbeat() {
+        heartbeatScheduler.shutdownNow();
+    }
+
+    // /subscribe                              -> 내 주문 알림 + 내 권한(role)에 대한 알림
+    // /subscribe?topics=category:의류,category:식품 -> 내 주문 알림 + 지정한 카테고리 알림 (ADMIN만 가능)
+    // 재연결 시 브라우저(EventSource)가 마지막으로 받은 이벤트 id를 Last-Event-ID 헤더로 보내 준다.
     @GetMapping("/subscribe")
-    public SseEmitter subscribe(@AuthenticationPrincipal TokenUserInfo userInfo) {
+    public SseEmitter subscribe(@AuthenticationPrincipal TokenUserInfo userInfo,
+                                @RequestParam(required = false) List<String> topics,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
 
         SseEmitter emitter = new SseEmitter(1440 * 60 * 1000L); // 알림 서비스 구현 핵심 객체
         String email = userInfo.getEmail();
-        emitters.put(email, emitter);
 
-        log.info("Subscribing to {}:", email);
+        // 같은 사용자가 탭을 여러 개 열어도 연결마다 따로 등록된다.
+        Subscription subscription
+                = registry.register(email, userInfo.getRole(), resolveTopics(userInfo, topics), emitter);
+
+        log.info("Subscribing to {}: {}", email, subscription.getTopics());
 
-        // 클라이언트가 연결을 끊거나, emitter의 수명이 다하면 맵에서 제거
-        emitter.onCompletion(() -> emitters.remove(email));
-        emitter.onTimeout(() -> emitters.remove(email));
+        // 클라이언트가 연결을 끊거나, emitter의 수명이 다하면 저장소에서 제거
+        emitter.onCompletion(() -> registry.unregister(subscription));
+        emitter.onTimeout(() -> registry.unregister(subscription));
+        emitter.onError(e -> registry.unregister(subscription));
 
         // 연결 성공 메세지 전송
+        send(subscription, SseEmitter.event()
+                .name("connect")
+                .data("connected!!!"));
+
+        // 끊겨 있는 동안 놓친 이벤트가 있다면 다시 보내 준다.
+        if (StringUtils.hasText(lastEventId)) {
+            replayMissedEvents(subscription, lastEventId);
+        }
+
+        return emitter;
+
+    }
+
+    private void replayMissedEvents(Subscription subscription, String lastEventId) {
+        long lastId;
         try {
-            emitter.send(SseEmitter.event()
-                    .name("connect")
-                    .data("connected!!!"));
-
-            // 30초마다 heartbeat 메시지를 전송하여 연결 유지
-            // 클라이언트에서 사용하는 EventSourcePolyfill이 45초 동안 활동이 없으면, 자체 연결 종료를 방지 ??
-            Executors.newScheduledThreadPool(1).scheduleAtFixedRate(() -> {
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name("heartbeat")
-                            .data("keep-alive")); // 클라이언트 단이 살아 있는지 확인
-                } catch (IOException e) {
-                    emitters.remove(email);
-                    System.out.println("Failed to send heartbeat, removing emitter for email: " + email);
+            lastId = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        List<SseReplayBuffer.BufferedEvent> missed = replayBuffer.replay(subscription.getTopics(), lastId);
+        if (missed == null) {
+            // 버퍼에 남아 있지 않을 만큼 오래 끊겨 있었다면 목록을 다시 불러오라고 알린다.
+            send(subscription, SseEmitter.event()
+                    .name("resync")
+                    .data("reload"));
+            return;
+        }
+
+        log.info("Replaying {} events to {} after {}", missed.size(), subscription.getEmail(), lastId);
+        for (SseReplayBuffer.BufferedEvent event : missed) {
+            send(subscription, toSseEvent(event.getId(), event.getName(), event.getData()));
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(long id, String name, Object data) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .id(String.valueOf(id))
+                .name(name);
+        if (data instanceof SseReplayBuffer.RawJson raw) {
+            return builder.data(raw.getJson(), MediaType.APPLICATION_JSON);
+        }
+        return builder.data(data);
+    }
+
+    private Set<String> resolveTopics(TokenUserInfo userInfo, List<String> requested) {
+        Set<String> topics = new HashSet<>();
+        // 본인 주문에 대한 알림은 항상 받는다.
+        topics.add(SseSubscriptionRegistry.userTopic(userInfo.getEmail()));
+
+        // 카테고리 토픽은 다른 사용자의 주문이 포함되므로 관리자만 구독할 수 있다.
+        if (userInfo.getRole() == Role.ADMIN && requested != null) {
+            for (String topic : requested) {
+                if (topic.startsWith("category:")) {
+                    topics.add(topic);
                 }
-            }, 30, 30, TimeUnit.SECONDS); // 30초마다 heartbeat 메시지 전송
-            
-        } catch (IOException e) {
-            emitters.remove(email);
+            }
         }
 
-        return emitter;
+        // 별도로 지정한 토픽이 없다면 권한(role)에 대한 알림을 받는다. (관리자 -> 전체 주문)
+        if (topics.size() == 1) {
+            topics.add(SseSubscriptionRegistry.roleTopic(userInfo.getRole()));
+        }
+        return topics;
+    }
+
+    // OrderNotificationDispatcher의 전송 스레드에서 호출된다. (주문 요청 스레드 x)
+    // 관리자 전체, 주문한 사용자, 주문 상품의 카테고리 구독자에게 한 번씩만 전송.
+    public void sendOrderMessage(OrderCreatedEvent event){
+        OrderingListResDto dto = event.getOrder();
+        List<String> topics = SseSubscriptionRegistry.orderTopics(event);
+
+        // 재연결한 클라이언트에게 다시 보낼 수 있도록 버퍼에 보관
+        replayBuffer.record(event.getEventId(), "ordered", topics, dto);
 
+        for (Subscription subscription : registry.subscribersOf(topics)) {
+            send(subscription, toSseEvent(event.getEventId(), "ordered", dto));
+        }
     }
 
-    public void sendOrderMessage(Ordering save){
-        OrderingListResDto dto = save.fromEntity();
+    // 알림이 너무 많이 몰려서 일부를 버렸을 때, 버린 알림을 받았어야 할 구독자에게 목록을 다시 불러오라고 알림
+    public void sendResyncMessage(Collection<String> topics) {
+        for (Subscription subscription : registry.subscribersOf(topics)) {
+            send(subscription, SseEmitter.event()
+                    .name("resync")
+                    .data("reload"));
+        }
+    }
+
+    // 연결된 emitter 들을 한 번에 돌면서 heartbeat 전송
+    // 최근 heartbeat 주기 안에 다른 메시지를 보낸 emitter는 건너뛴다. (이미 연결이 살아 있는 것을 확인했으므로)
+    private void sendHeartbeats() {
+        long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(HEARTBEAT_INTERVAL_SECONDS);
+        for (Subscription subscription : registry.all()) {
+            if (subscription.getLastSentAt() > threshold) {
+                continue;
+            }
+            send(subscription, SseEmitter.event()
+                    .name("heartbeat")
+                    .data("keep-alive")); // 클라이언트 단이 살아 있는지 확인
+        }
+    }
 
-        // 누구에게 메시지를 전달할 지 알려줘야 한다.(admin@admin.com이 반는다고 가정)
-        SseEmitter emitter = emitters.get("admin@admin.com");
+    // 전송에 실패하면 끊어진 연결로 보고 바로 정리
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        SseEmitter emitter = subscription.getEmitter();
         try {
-            emitter.send(SseEmitter.event()
-                    .name("ordered")
-                    .data(dto));
-        } catch (IOException e) {
-            emitters.remove("admin@admin.com");
+            emitter.send(event);
+            subscription.markSent();
+        } catch (IOException | IllegalStateException e) {
+            log.info("Failed to send to {}, removing emitter", subscription.getEmail());
+            registry.unregister(subscription);
+            emitter.completeWithError(e);
         }
     }
 }
@@ -0,0 +1,23 @@
+package com.playdata.orderservice.ordering.dto;
+
+import lombok.*;
+
+import java.util.Set;
+
+// 주문이 생성되었을 때 발행하는 이벤트
+// 트랜잭션 안에서 미리 dto로 변환해서 담아 두기 때문에, 커밋 이후에 엔터티(지연 로딩)를 건드리지 않는다.
+// 서버가 여러 대일 때는 이 객체가 그대로 JSON으로 Redis 채널에 실려 간다.
+@Getter @Setter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCreatedEvent {
+
+    // SSE 이벤트 id (Last-Event-ID로 놓친 이벤트를 다시 보낼 때 사용, 커밋 이후에 발급)
+    private Long eventId;
+
+    private OrderingListResDto order;
+
+    // 주문에 포함된 상품들의 카테고리 (카테고리 토픽 구독자에게 전달할 때 사용)
+    private Set<String> categories;
+
+}
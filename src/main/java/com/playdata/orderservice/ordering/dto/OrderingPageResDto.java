@@ -0,0 +1,18 @@
+package com.playdata.orderservice.ordering.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 커서(주문 id) 기반 페이지 응답
+// 다음 페이지는 nextCursor 값을 cursor 파라미터로 넘겨서 요청한다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderingPageResDto {
+
+    private List<OrderingListResDto> content;
+    private Long nextCursor;
+    private boolean hasNext;
+
+}
@@ -0,0 +1,31 @@
+package com.playdata.orderservice.ordering.dto;
+
+import com.playdata.orderservice.ordering.entity.OrderStatus;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// 관리자 주문 목록 조회 조건
+// /order/list?status=ORDERED&userEmail=a@a.com&from=2024-11-01&to=2024-11-30&cursor=1234&size=20
+@Setter @Getter @ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderingSearchDto {
+
+    private OrderStatus status;
+    private String userEmail;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    // 이전 페이지의 마지막 주문 id (첫 페이지는 비워서 요청)
+    private Long cursor;
+
+    private Integer size;
+
+}
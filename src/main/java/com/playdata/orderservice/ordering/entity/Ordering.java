@@ -1,5 +1,6 @@
 package com.playdata.orderservice.ordering.entity;
 
+import com.playdata.orderservice.common.entity.BaseTimeEntity;
 import com.playdata.orderservice.ordering.dto.OrderingListResDto;
 import com.playdata.orderservice.user.entity.User;
 import jakarta.persistence.*;
@@ -17,7 +18,15 @@ import java.util.List;
 @Builder
 
 @Entity
-public class Ordering {
+// 관리자 주문 목록(커서 페이징)과 내보내기의 필터 조건용 인덱스
+// 조건으로 범위를 좁힌 뒤 id 순서 그대로 읽을 수 있도록 뒤에 id를 붙인다. (id 내림차순 + limit이 정렬 없이 끝난다)
+// 주문자 조건은 tbl_user.email 유니크 인덱스로 회원을 찾은 뒤 (user_id, id)로 읽는다.
+@Table(indexes = {
+        @Index(name = "idx_ordering_status_id", columnList = "orderStatus, id"),
+        @Index(name = "idx_ordering_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_ordering_create_time_id", columnList = "createTime, id")
+})
+public class Ordering extends BaseTimeEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +45,11 @@ public class Ordering {
 
 
     public OrderingListResDto fromEntity() {
+        return fromEntity(this.user.getEmail());
+    }
+
+    // 주문자 이메일을 이미 알고 있을 때 (user가 프록시라면 getEmail() 호출만으로 회원 SELECT가 나가므로)
+    public OrderingListResDto fromEntity(String userEmail) {
 
         // DB에서 조회해 온 Ordering에서 상세 내역을 확인합니다.
         List<OrderDetail> orderDetailList = this.getOrderDetails();
@@ -50,7 +64,7 @@ public class Ordering {
         // 주문 상세 내역 dto 포장이 완료되면 하나의 주문 내역 자체를 dto로 변환해서 리턴.
         return OrderingListResDto.builder()
                 .id(this.id)
-                .userEmail(this.user.getEmail())
+                .userEmail(userEmail)
                 .orderStatus(this.orderStatus)
                 .orderDetails(orderDetailDtos)
                 .build();
@@ -0,0 +1,183 @@
+package com.playdata.orderservice.ordering.repository;
+
+import com.playdata.orderservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderservice.ordering.dto.OrderingPageResDto;
+import com.playdata.orderservice.ordering.dto.OrderingSearchDto;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.playdata.orderservice.ordering.entity.QOrderDetail.orderDetail;
+import static com.playdata.orderservice.ordering.entity.QOrdering.ordering;
+import static com.playdata.orderservice.product.entity.QProduct.product;
+import static com.playdata.orderservice.user.entity.QUser.user;
+
+// 주문 목록 조회 전용 리포지토리 (QueryDSL)
+// 엔터티를 꺼내서 지연 로딩으로 상세/상품을 하나씩 불러오지 않고,
+// 주문 + 주문자 + 상세 + 상품명을 조인 한 번으로 조회해서 바로 dto로 조립한다.
+@Repository
+@RequiredArgsConstructor
+public class OrderingQueryRepository {
+
+    private final JPAQueryFactory factory;
+
+    /**
+     * 특정 사용자의 주문 목록 (주문 상세 포함)
+     * 주문 수, 상세 수와 상관없이 쿼리는 1번만 실행된다.
+     *
+     * @param email - 주문한 사용자 이메일 (토큰에 들어 있는 값)
+     */
+    public List<OrderingListResDto> findOrderListByUserEmail(String email) {
+        return findOrderList(user.email.eq(email));
+    }
+
+    /**
+     * 특정 사용자의 주문 목록 (회원 id로 조회)
+     *
+     * @param userId - 주문한 사용자 id (토큰의 uid 클레임)
+     */
+    public List<OrderingListResDto> findOrderListByUserId(Long userId) {
+        return findOrderList(ordering.user.id.eq(userId));
+    }
+
+    /**
+     * 조건에 맞는 주문 목록을 상세 내역까지 포함해서 조회
+     *
+     * @param predicate - 주문 조회 조건
+     */
+    public List<OrderingListResDto> findOrderList(Predicate predicate) {
+        return findOrderList(predicate, ordering.id.asc());
+    }
+
+    /**
+     * 관리자 주문 목록 (커서 기반 페이징)
+     * OFFSET 없이 "id < 커서" 조건으로 PK 인덱스를 타기 때문에, 몇 번째 페이지든 비용이 같다.
+     * 상태/주문자/날짜 조건이 있으면 (조건 컬럼, id) 인덱스를 탄다. (Ordering의 @Table 인덱스 참고)
+     * 1) 조건에 맞는 주문 id만 size + 1 개 조회 (다음 페이지 존재 여부 확인용으로 1개 더)
+     * 2) 해당 주문들의 상세 내역을 조인 한 번으로 조회
+     */
+    public OrderingPageResDto findOrderPage(OrderingSearchDto searchDto, int size) {
+        BooleanBuilder builder = searchCondition(searchDto);
+        if (searchDto.getCursor() != null) {
+            builder.and(ordering.id.lt(searchDto.getCursor()));
+        }
+
+        List<Long> ids = factory
+                .select(ordering.id)
+                .from(ordering)
+                .where(builder)
+                .orderBy(ordering.id.desc())
+                .limit(size + 1)
+                .fetch();
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        List<OrderingListResDto> content = ids.isEmpty()
+                ? new ArrayList<>()
+                : findOrderList(ordering.id.in(ids), ordering.id.desc());
+
+        return OrderingPageResDto.builder()
+                .content(content)
+                .nextCursor(hasNext ? ids.get(ids.size() - 1) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * 주문 내보내기(export)용 스트림 조회
+     * 결과를 List로 모으지 않고, DB 커서에서 한 행씩 꺼내 쓴다. (주문 x 상세 단위, 주문 id 오름차순)
+     * MySQL 드라이버는 fetch size가 Integer.MIN_VALUE 일 때만 결과를 한꺼번에 받아 두지 않고 흘려보낸다.
+     * 엔터티가 아닌 컬럼만 조회하므로 영속성 컨텍스트에도 쌓이지 않는다.
+     * 반드시 트랜잭션 안에서 사용하고, 다 쓴 스트림은 닫아야 한다.
+     */
+    public Stream<Tuple> streamOrderRows(OrderingSearchDto searchDto) {
+        return factory
+                .select(ordering.id, user.email, ordering.orderStatus, ordering.createTime,
+                        orderDetail.id, product.name, orderDetail.quantity)
+                .from(ordering)
+                .join(ordering.user, user)
+                .leftJoin(ordering.orderDetails, orderDetail)
+                .leftJoin(orderDetail.product, product)
+                .where(searchCondition(searchDto))
+                .orderBy(ordering.id.asc(), orderDetail.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
+    }
+
+    // 상태, 주문자, 주문 날짜 범위 조건 (목록 조회와 내보내기에서 같이 사용)
+    private BooleanBuilder searchCondition(OrderingSearchDto searchDto) {
+        BooleanBuilder builder = new BooleanBuilder();
+        if (searchDto.getStatus() != null) {
+            builder.and(ordering.orderStatus.eq(searchDto.getStatus()));
+        }
+        if (StringUtils.hasText(searchDto.getUserEmail())) {
+            builder.and(ordering.user.email.eq(searchDto.getUserEmail()));
+        }
+        if (searchDto.getFrom() != null) {
+            builder.and(ordering.createTime.goe(searchDto.getFrom().atStartOfDay()));
+        }
+        if (searchDto.getTo() != null) {
+            builder.and(ordering.createTime.lt(searchDto.getTo().plusDays(1).atStartOfDay()));
+        }
+        return builder;
+    }
+
+    private List<OrderingListResDto> findOrderList(Predicate predicate, OrderSpecifier<Long> orderById) {
+        List<Tuple> rows = factory
+                .select(ordering.id, user.email, ordering.orderStatus,
+                        orderDetail.id, product.name, orderDetail.quantity)
+                .from(ordering)
+                .join(ordering.user, user)
+                .leftJoin(ordering.orderDetails, orderDetail)
+                .leftJoin(orderDetail.product, product)
+                .where(predicate)
+                .orderBy(orderById, orderDetail.id.asc())
+                .fetch();
+
+        return toDtoList(rows);
+    }
+
+    // 주문 x 상세 단위로 펼쳐진 행들을 주문 단위 dto로 묶는다.
+    private List<OrderingListResDto> toDtoList(List<Tuple> rows) {
+        Map<Long, OrderingListResDto> dtoMap = new LinkedHashMap<>();
+
+        for (Tuple row : rows) {
+            OrderingListResDto dto = dtoMap.computeIfAbsent(row.get(ordering.id),
+                    id -> OrderingListResDto.builder()
+                            .id(id)
+                            .userEmail(row.get(user.email))
+                            .orderStatus(row.get(ordering.orderStatus))
+                            .orderDetails(new ArrayList<>())
+                            .build());
+
+            // 상세가 없는 주문은 left join 결과로 상세 컬럼이 null
+            Long detailId = row.get(orderDetail.id);
+            if (detailId != null) {
+                dto.getOrderDetails().add(OrderingListResDto.OrderDetailDto.builder()
+                        .id(detailId)
+                        .productName(row.get(product.name))
+                        .count(row.get(orderDetail.quantity))
+                        .build());
+            }
+        }
+
+        return new ArrayList<>(dtoMap.values());
+    }
+
+}
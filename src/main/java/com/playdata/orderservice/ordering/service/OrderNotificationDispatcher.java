@@ -0,0 +1,204 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderservice.ordering.controller.SseController;
+import com.playdata.orderservice.ordering.dto.OrderCreatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+// 주문 알림을 커밋 이후에 별도 스레드에서 SSE로 전송하는 디스패처
+// 주문 요청 스레드는 큐에 넣기만 하고 바로 리턴하기 때문에,
+// 관리자 브라우저의 네트워크가 느려도 주문 트랜잭션과 DB 커넥션을 붙잡지 않는다.
+//
+// sse.cluster.enabled=true 이면 서버가 여러 대일 때를 위해 Redis 채널로 알림을 발행하고,
+// 모든 서버가 채널을 구독해서 자기에게 연결된 emitter 들에게 전달한다. (발행한 서버 자신도 구독으로 받는다)
+public class OrderNotificationDispatcher {
+
+    // 큐가 가득 찼을 때 어떤 알림을 버릴지
+    // 어느 정책이든 버린 알림은 재전송 버퍼에 빠진 구간으로 표시하고,
+    // 해당 토픽 구독자에게 "resync" 알림을 한 번 보내서 목록을 다시 불러오게 한다.
+    public enum OverflowPolicy {
+        DROP_NEWEST, // 새로 들어온 알림을 버린다.
+        DROP_OLDEST, // 가장 오래된 알림을 버리고 새 알림을 넣는다.
+        COALESCE     // 쌓여 있던 알림까지 모두 버린다. (어차피 목록을 다시 불러오므로 하나씩 보내지 않는다)
+    }
+
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final long RESYNC_CHECK_INTERVAL_MS = 1000;
+
+    private final SseController sseController;
+    private final SseReplayBuffer replayBuffer;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${sse.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${sse.cluster.channel:order-feed}")
+    private String channel;
+
+    @Value("${sse.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${sse.dispatch.overflow-policy:COALESCE}")
+    private OverflowPolicy overflowPolicy;
+
+    private BlockingQueue<OrderCreatedEvent> queue;
+    private Thread worker;
+
+    // 큐가 넘쳐서 버린 알림의 토픽들 (전송 스레드가 이 토픽 구독자에게 resync를 보내고 비운다)
+    private final Set<String> droppedTopics = ConcurrentHashMap.newKeySet();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        worker = new Thread(this::dispatchLoop, "order-notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+
+        if (clusterEnabled) {
+            listenerContainer.addMessageListener(this::onClusterMessage, new ChannelTopic(channel));
+            log.info("Order notifications are relayed through redis channel '{}'", channel);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    // 주문 트랜잭션이 커밋된 이후에만 호출된다. (롤백된 주문은 알림이 나가지 않는다)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        // 이벤트 id를 발급하고, 재전송용으로 Redis Stream에도 남긴다. (설정한 경우)
+        event.setEventId(replayBuffer.nextEventId());
+        replayBuffer.mirror(event.getEventId(), "ordered",
+                SseSubscriptionRegistry.orderTopics(event), event.getOrder());
+
+        if (clusterEnabled && publish(event)) {
+            return;
+        }
+        enqueue(event);
+    }
+
+    // 모든 서버에게 알림을 발행 (실패하면 false -> 이 서버의 구독자에게만 전달)
+    private boolean publish(OrderCreatedEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to publish order {} to redis, delivering locally: {}",
+                    event.getOrder().getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // 다른 서버(또는 자기 자신)가 발행한 알림을 받아서 로컬 큐에 넣는다.
+    private void onClusterMessage(Message message, byte[] pattern) {
+        try {
+            enqueue(objectMapper.readValue(message.getBody(), OrderCreatedEvent.class));
+        } catch (IOException e) {
+            log.error("Invalid order notification from redis: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(OrderCreatedEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+
+        List<OrderCreatedEvent> dropped = new ArrayList<>();
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> dropped.add(event);
+            case DROP_OLDEST -> {
+                OrderCreatedEvent oldest = queue.poll();
+                if (oldest != null) {
+                    dropped.add(oldest);
+                }
+                if (!queue.offer(event)) {
+                    dropped.add(event);
+                }
+            }
+            case COALESCE -> {
+                queue.drainTo(dropped);
+                dropped.add(event);
+            }
+        }
+
+        for (OrderCreatedEvent droppedEvent : dropped) {
+            markDropped(droppedEvent);
+        }
+        log.warn("Order notification queue full ({}), dropped {} notifications", overflowPolicy, dropped.size());
+    }
+
+    // 버린 알림은 id만 발급되고 구독자에게 가지 않았으므로,
+    // Last-Event-ID로 재연결한 클라이언트가 모르고 건너뛰지 않도록 재전송 버퍼에 빠진 구간으로 표시한다.
+    private void markDropped(OrderCreatedEvent event) {
+        droppedCount.incrementAndGet();
+        List<String> topics = SseSubscriptionRegistry.orderTopics(event);
+        replayBuffer.markDropped(event.getEventId(), topics);
+        droppedTopics.addAll(topics);
+    }
+
+    // 큐에 쌓인 알림을 한 번에 꺼내서 전송
+    private void dispatchLoop() {
+        List<OrderCreatedEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // COALESCE는 큐를 비우기도 하므로, 큐가 비어 있어도 주기적으로 깨어나서 resync를 확인한다.
+                OrderCreatedEvent first = queue.poll(RESYNC_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                }
+
+                for (OrderCreatedEvent event : batch) {
+                    sseController.sendOrderMessage(event);
+                }
+
+                // 넘쳐서 버린 알림이 있다면 해당 토픽 구독자에게 목록을 다시 불러오라고 한 번만 알린다.
+                if (!droppedTopics.isEmpty()) {
+                    List<String> topics = new ArrayList<>(droppedTopics);
+                    droppedTopics.removeAll(topics);
+                    sseController.sendResyncMessage(topics);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Failed to dispatch order notification: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderservice.ordering.dto.OrderingSearchDto;
+import com.playdata.orderservice.ordering.repository.OrderingQueryRepository;
+import com.querydsl.core.Tuple;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static com.playdata.orderservice.ordering.entity.QOrderDetail.orderDetail;
+import static com.playdata.orderservice.ordering.entity.QOrdering.ordering;
+import static com.playdata.orderservice.product.entity.QProduct.product;
+import static com.playdata.orderservice.user.entity.QUser.user;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+// 관리자용 주문 내보내기 (보고서용)
+// DB 커서에서 읽은 행을 바로 응답 스트림에 써 내려가기 때문에,
+// 주문이 1만 건이든 1000만 건이든 서버 메모리에는 버퍼 하나와 주문 한 건 분량만 올라간다.
+public class OrderingExportService {
+
+    // 응답에 쓰기 전에 모아 두는 버퍼 크기 (가득 차면 클라이언트로 흘려보낸다)
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"), // 한 줄에 주문 하나 (JSON)
+        CSV("text/csv", "csv");                   // 한 줄에 주문 상세 하나
+
+        @Getter
+        private final MediaType mediaType;
+        @Getter
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType + ";charset=UTF-8");
+            this.extension = extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("지원하지 않는 형식입니다: " + value);
+        }
+    }
+
+    private final OrderingQueryRepository orderingQueryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    // 스트림을 다 읽을 때까지 커넥션을 잡고 있어야 하므로 읽기 전용 트랜잭션으로 감싼다.
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    private void initializeReadTransaction() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 조건에 맞는 주문들을 지정한 형식으로 out에 써 내려간다.
+     * StreamingResponseBody의 전송 스레드에서 호출된다.
+     */
+    public void export(Format format, OrderingSearchDto searchDto, OutputStream out) {
+        readTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            try (Stream<Tuple> rows = orderingQueryRepository.streamOrderRows(searchDto)) {
+                long count = format == Format.CSV
+                        ? writeCsv(rows.iterator(), writer)
+                        : writeNdjson(rows.iterator(), writer);
+                writer.flush();
+                log.info("Exported {} orders as {}", count, format);
+            } catch (IOException e) {
+                // 클라이언트가 다운로드를 중간에 끊은 경우
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // 주문 x 상세 행이 주문 id 순서로 들어오므로, id가 바뀔 때마다 이전 주문을 한 줄로 마무리한다.
+    private long writeNdjson(Iterator<Tuple> rows, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+        long count = 0;
+        Long currentId = null;
+        while (rows.hasNext()) {
+            Tuple row = rows.next();
+            Long orderId = row.get(ordering.id);
+            if (!Objects.equals(orderId, currentId)) {
+                if (currentId != null) {
+                    endOrder(generator);
+                }
+                currentId = orderId;
+                count++;
+
+                generator.writeStartObject();
+                generator.writeNumberField("id", orderId);
+                generator.writeStringField("userEmail", row.get(user.email));
+                generator.writeStringField("orderStatus", String.valueOf(row.get(ordering.orderStatus)));
+                generator.writeStringField("createTime", format(row.get(ordering.createTime)));
+                generator.writeArrayFieldStart("orderDetails");
+            }
+
+            Long detailId = row.get(orderDetail.id);
+            if (detailId != null) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", detailId);
+                generator.writeStringField("productName", row.get(product.name));
+                generator.writeNumberField("count", row.get(orderDetail.quantity));
+                generator.writeEndObject();
+            }
+        }
+        if (currentId != null) {
+            endOrder(generator);
+        }
+        generator.flush();
+        return count;
+    }
+
+    private void endOrder(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private long writeCsv(Iterator<Tuple> rows, Writer writer) throws IOException {
+        writer.write("orderId,userEmail,orderStatus,createTime,orderDetailId,productName,quantity\n");
+
+        long count = 0;
+        Long currentId = null;
+        while (rows.hasNext()) {
+            Tuple row = rows.next();
+            Long orderId = row.get(ordering.id);
+            if (!Objects.equals(orderId, currentId)) {
+                currentId = orderId;
+                count++;
+            }
+            Long detailId = row.get(orderDetail.id);
+
+            writer.write(String.valueOf(orderId));
+            writer.write(',');
+            writer.write(csv(row.get(user.email)));
+            writer.write(',');
+            writer.write(String.valueOf(row.get(ordering.orderStatus)));
+            writer.write(',');
+            writer.write(format(row.get(ordering.createTime)));
+            writer.write(',');
+            writer.write(detailId == null ? "" : String.valueOf(detailId));
+            writer.write(',');
+            writer.write(csv(row.get(product.name)));
+            writer.write(',');
+            writer.write(detailId == null ? "" : String.valueOf(row.get(orderDetail.quantity)));
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 들어 있는 값은 따옴표로 감싸고 내부 따옴표는 두 번 쓴다. (RFC 4180)
+    // 이메일, 상품명은 사용자가 입력한 값이므로 =, +, -, @ 등으로 시작하면 앞에 '를 붙여
+    // 엑셀에서 파일을 열 때 수식으로 실행되지 않도록 한다. (CSV injection)
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private String format(LocalDateTime time) {
+        return time == null ? "" : time.toString();
+    }
+
+}
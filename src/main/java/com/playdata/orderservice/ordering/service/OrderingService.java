@@ -1,26 +1,37 @@
 package com.playdata.orderservice.ordering.service;
 
 import com.playdata.orderservice.common.auth.TokenUserInfo;
-import com.playdata.orderservice.ordering.controller.SseController;
+import com.playdata.orderservice.ordering.dto.OrderCreatedEvent;
 import com.playdata.orderservice.ordering.dto.OrderingListResDto;
+import com.playdata.orderservice.ordering.dto.OrderingPageResDto;
 import com.playdata.orderservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderservice.ordering.dto.OrderingSearchDto;
 import com.playdata.orderservice.ordering.entity.OrderDetail;
 import com.playdata.orderservice.ordering.entity.OrderStatus;
 import com.playdata.orderservice.ordering.entity.Ordering;
+import com.playdata.orderservice.ordering.repository.OrderingQueryRepository;
 import com.playdata.orderservice.ordering.repository.OrderingRepository;
+import com.playdata.orderservice.product.dto.ProductStockChangedEvent;
 import com.playdata.orderservice.product.entity.Product;
 import com.playdata.orderservice.product.repository.ProductRepository;
+import com.playdata.orderservice.product.service.StockReservationEngine;
 import com.playdata.orderservice.user.entity.User;
 import com.playdata.orderservice.user.repository.UserRepository;
+import com.playdata.orderservice.user.service.UserIdentityCache;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.query.Order;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,17 +41,19 @@ import java.util.stream.Collectors;
 public class OrderingService {
 
     private final OrderingRepository orderingRepository;
+    private final OrderingQueryRepository orderingQueryRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final SseController sseController;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationEngine stockReservationEngine;
+    private final UserIdentityCache userIdentityCache;
 
 
     public Ordering createOrdering(List<OrderingSaveReqDto> dtoList,
                                    TokenUserInfo userInfo) {
         // Ordering 객체를 생성하기 위해 회원 정보를 얻어오기.
-        User user = userRepository.findByEmail(userInfo.getEmail()).orElseThrow(
-                () -> new EntityNotFoundException("User Not Found")
-        );
+        // 주문에는 회원의 FK만 필요하므로 SELECT 없이 프록시(참조)만 얻는다. (회원 id는 토큰 또는 캐시에서)
+        User user = userRepository.getReferenceById(userIdentityCache.resolveUserId(userInfo));
 
         // Ordering(주문) 객체 생성
         Ordering ordering = Ordering.builder()
@@ -48,29 +61,38 @@ public class OrderingService {
                 .orderDetails(new ArrayList<>()) // 아직 주문 상세 들어가기 전.
                 .build();
 
-        // 주문 상세 내역에 대한 처리를 반복문으로 지정.
+        // 같은 상품이 여러 줄로 들어올 수 있으니 상품 id 기준으로 수량을 합산해 둔다.
+        Map<Long, Integer> quantityMap = new LinkedHashMap<>();
         for (OrderingSaveReqDto dto : dtoList) {
+            if (dto.getProductCount() <= 0) {
+                throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다!");
+            }
+            quantityMap.merge(dto.getProductId(), dto.getProductCount(), Integer::sum);
+        }
+        if (quantityMap.isEmpty()) {
+            throw new IllegalArgumentException("주문할 상품이 없습니다!");
+        }
 
-            // dto에는 상품 고유 id가 있으니까 그걸 활용해서
-            // product 객체를 조회하자.
-            Product product = productRepository.findById(dto.getProductId()).orElseThrow(
-                    () -> new EntityNotFoundException("Product Not Found")
-            );
+        // 주문에 포함된 상품을 IN 쿼리 한 번으로 모두 조회. (상품마다 findById 하지 않는다)
+        Map<Long, Product> productMap = productRepository.findAllById(quantityMap.keySet())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
 
-            // 재고 넉넉하게 있는지 확인.
-            int quantity = dto.getProductCount();
-            if (product.getStockQuantity() < quantity) {
-                throw new IllegalArgumentException("재고 부족!");
-            }
+        // 존재하지 않는 상품이 섞여 있는지 확인.
+        if (productMap.size() != quantityMap.size()) {
+            throw new EntityNotFoundException("Product Not Found");
+        }
 
-            // 재고가 부족하지 않다면 재고 수량을 주문 수량만큼 빼 주자. (setter 직접 작성)
-            product.updateStockQuantity(quantity);
+        // 재고 확인 및 차감은 설정된 재고 예약 엔진에게 맡긴다. (stock.engine: atomic / jpa / bucket)
+        stockReservationEngine.reserve(productMap, quantityMap);
 
+        // 주문 상세 내역에 대한 처리를 반복문으로 지정.
+        for (OrderingSaveReqDto dto : dtoList) {
             // 주문 상세 내역 엔터티를 생성
             OrderDetail orderDetail = OrderDetail.builder()
-                    .product(product)
+                    .product(productMap.get(dto.getProductId()))
                     .ordering(ordering)
-                    .quantity(quantity)
+                    .quantity(dto.getProductCount())
                     .build();
 
             // 주문 내역 리스트에 상세 내역을 add 하기.
@@ -82,7 +104,15 @@ public class OrderingService {
         Ordering save =  orderingRepository.save(ordering);
 
         //관리지에게 주문이 생성되었다는 알림을 전송
-        sseController.sendOrderMessage(save);
+        // 트랜잭션 안에서는 이벤트만 발행하고, 실제 전송은 커밋 이후에 별도 스레드에서 진행된다.
+        Set<String> categories = productMap.values().stream()
+                .map(Product::getCategory)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new OrderCreatedEvent(null, save.fromEntity(userInfo.getEmail()), categories));
+
+        // 재고가 바뀐 상품이 들어 있는 상품 목록 캐시 무효화 (커밋 이후)
+        eventPublisher.publishEvent(new ProductStockChangedEvent(new ArrayList<>(quantityMap.keySet())));
 
         return save;
 //        return orderingRepository.save(ordering);
@@ -115,29 +145,25 @@ public class OrderingService {
             ]
          }
          */
-        String userEmail = userInfo.getEmail();
-        User user = userRepository.findByEmail(userEmail).orElseThrow(
-                () -> new EntityNotFoundException("User Not Found")
-        );
-
-        List<Ordering> orderingList = orderingRepository.findByUser(user);
-
-        // Ordering 엔터티를 DTO로 변환하자. 주문 상세에 대한 변환도 필요하다!
-        List<OrderingListResDto> dtos = orderingList.stream()
-                .map(order -> order.fromEntity())
-                .collect(Collectors.toList());
-
-        return dtos;
+        // 주문, 주문 상세, 상품명을 조인 한 번으로 조회해서 바로 dto로 조립한다.
+        // (엔터티를 꺼내서 fromEntity()로 변환하면 주문마다, 상세마다 지연 로딩 쿼리가 추가로 나간다)
+        // 회원 id를 알면 이메일 대신 주문의 user_id(FK 인덱스)로 바로 찾는다.
+        if (userInfo.getId() != null) {
+            return orderingQueryRepository.findOrderListByUserId(userInfo.getId());
+        }
+        return orderingQueryRepository.findOrderListByUserEmail(userInfo.getEmail());
     }
 
-    public List<OrderingListResDto> orderList() {
-        List<Ordering> orderList = orderingRepository.findAll();
+    // 한 번에 조회할 수 있는 최대 주문 수
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_PAGE_SIZE = 20;
 
-        List<OrderingListResDto> dtos = orderList.stream()
-                .map(order -> order.fromEntity())
-                .collect(Collectors.toList());
+    public OrderingPageResDto orderList(OrderingSearchDto searchDto) {
+        // 전체 주문을 한 번에 메모리에 올리지 않고, 커서 기반으로 잘라서 조회
+        int size = searchDto.getSize() == null ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(searchDto.getSize(), MAX_PAGE_SIZE));
 
-        return dtos;
+        return orderingQueryRepository.findOrderPage(searchDto, size);
     }
 
     public Ordering orderCancel(long id) {
@@ -0,0 +1,237 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+// SSE 이벤트 재전송(replay)용 버퍼
+// 토픽마다 최근 이벤트를 정해진 개수만큼 링 버퍼로 보관하다가,
+// 클라이언트가 Last-Event-ID 헤더와 함께 다시 연결하면 놓친 이벤트만 골라서 다시 보내 준다.
+// (재연결할 때마다 /order/list 전체를 다시 조회하지 않아도 된다)
+//
+// sse.replay.redis-stream.enabled=true 이면 이벤트를 Redis Stream에도 남겨 두고,
+// 서버 재시작 등으로 로컬 버퍼에 없는 구간은 Redis Stream에서 찾는다.
+public class SseReplayBuffer {
+
+    private static final String EVENT_ID_KEY = "sse:event-id";
+    private static final String STREAM_KEY_PREFIX = "sse:stream:";
+    private static final int STREAM_PAGE_SIZE = 50;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 토픽별로 보관할 최근 이벤트 수
+    @Value("${sse.replay.buffer-size:200}")
+    private int bufferSize;
+
+    @Value("${sse.replay.redis-stream.enabled:false}")
+    private boolean streamEnabled;
+
+    // 서버가 여러 대라면 이벤트 id를 Redis에서 발급해야 모든 서버에서 같은 id가 된다.
+    @Value("${sse.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    private final Map<String, TopicBuffer> buffers = new ConcurrentHashMap<>();
+
+    // 로컬 모드에서 사용하는 이벤트 id (재시작해도 이전 id보다 커지도록 현재 시각 기반으로 시작)
+    private final AtomicLong localEventId = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    // 이 서버가 버퍼링을 시작한 시점의 이벤트 id (이보다 이전 이벤트는 로컬 버퍼에 없다)
+    private long coveredFrom;
+
+    @PostConstruct
+    public void initialize() {
+        if (clusterEnabled) {
+            String current = stringRedisTemplate.opsForValue().get(EVENT_ID_KEY);
+            coveredFrom = current == null ? 0 : Long.parseLong(current);
+        } else {
+            coveredFrom = localEventId.get();
+        }
+    }
+
+    public long nextEventId() {
+        if (clusterEnabled) {
+            Long id = stringRedisTemplate.opsForValue().increment(EVENT_ID_KEY);
+            if (id != null) {
+                return id;
+            }
+        }
+        return localEventId.incrementAndGet();
+    }
+
+    /**
+     * 이벤트를 각 토픽의 로컬 버퍼에 저장 (이벤트를 전달받은 모든 서버에서 호출)
+     */
+    public void record(long id, String name, Collection<String> topics, Object data) {
+        BufferedEvent event = new BufferedEvent(id, name, data);
+        for (String topic : topics) {
+            buffers.computeIfAbsent(topic, key -> new TopicBuffer()).add(event, bufferSize);
+        }
+    }
+
+    /**
+     * 전송 큐가 넘쳐서 버린 이벤트를 표시 (이벤트를 전달받은 모든 서버에서 호출)
+     * 버린 이벤트는 로컬 버퍼에 없으므로, 그보다 이전 id로 재연결하면 로컬 버퍼로는 다 찾을 수 없다고 본다.
+     * (Redis Stream이 켜져 있으면 스트림에서 찾고, 아니면 null -> 클라이언트가 목록을 다시 불러온다)
+     */
+    public void markDropped(long id, Collection<String> topics) {
+        for (String topic : topics) {
+            buffers.computeIfAbsent(topic, key -> new TopicBuffer()).markMissing(id);
+        }
+    }
+
+    /**
+     * 이벤트를 Redis Stream에도 남긴다. (발행한 서버에서 한 번만 호출)
+     */
+    public void mirror(long id, String name, Collection<String> topics, Object data) {
+        if (!streamEnabled) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(data);
+            for (String topic : topics) {
+                String key = STREAM_KEY_PREFIX + topic;
+                MapRecord<String, String, String> record = StreamRecords.newRecord()
+                        .in(key)
+                        .ofMap(Map.of("id", String.valueOf(id), "name", name, "data", json));
+                stringRedisTemplate.opsForStream().add(record);
+                stringRedisTemplate.opsForStream().trim(key, bufferSize, true);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to mirror sse event {} to redis stream: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * lastEventId 이후에 발생한 이벤트들을 id 순서대로 리턴
+     *
+     * @return - 놓친 이벤트 목록. 버퍼에 남아 있지 않아 다 찾을 수 없으면 null (-> 클라이언트가 목록을 다시 불러와야 함)
+     */
+    public List<BufferedEvent> replay(Collection<String> topics, long lastEventId) {
+        Map<Long, BufferedEvent> missed = new TreeMap<>();
+        boolean covered = lastEventId >= coveredFrom;
+
+        for (String topic : topics) {
+            TopicBuffer buffer = buffers.get(topic);
+            if (buffer == null) {
+                continue;
+            }
+            covered &= buffer.collectAfter(lastEventId, missed);
+        }
+
+        if (covered) {
+            return new ArrayList<>(missed.values());
+        }
+        if (streamEnabled) {
+            return replayFromStream(topics, lastEventId);
+        }
+        return null;
+    }
+
+    // Redis Stream은 최신 이벤트부터 거꾸로 STREAM_PAGE_SIZE개씩 읽고, lastEventId 이하인 이벤트를 만나면 멈춘다.
+    // (재연결할 때마다 스트림 전체를 읽지 않도록)
+    // lastEventId를 끝내 찾지 못했는데 스트림이 이미 잘려 나간 적이 있다면 그 사이 이벤트가 빠졌을 수 있으므로 null
+    private List<BufferedEvent> replayFromStream(Collection<String> topics, long lastEventId) {
+        Map<Long, BufferedEvent> missed = new TreeMap<>();
+        for (String topic : topics) {
+            if (!collectFromStream(STREAM_KEY_PREFIX + topic, lastEventId, missed)) {
+                return null;
+            }
+        }
+        return new ArrayList<>(missed.values());
+    }
+
+    private boolean collectFromStream(String key, long lastEventId, Map<Long, BufferedEvent> result) {
+        Range<String> range = Range.unbounded();
+        int read = 0;
+        while (true) {
+            List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream()
+                    .reverseRange(key, range, Limit.limit().count(STREAM_PAGE_SIZE));
+            if (records == null || records.isEmpty()) {
+                // 스트림 처음까지 읽었다. 한 번도 잘린 적이 없다면(보관 개수 미만) 빠진 이벤트는 없다.
+                return read < bufferSize;
+            }
+            boolean reached = false;
+            for (MapRecord<String, Object, Object> record : records) {
+                long id = Long.parseLong((String) record.getValue().get("id"));
+                if (id > lastEventId) {
+                    // Redis에서 꺼낸 데이터는 이미 JSON 문자열
+                    result.put(id, new BufferedEvent(id,
+                            (String) record.getValue().get("name"),
+                            new RawJson((String) record.getValue().get("data"))));
+                } else {
+                    // id는 발급 순서와 기록 순서가 조금 어긋날 수 있으므로 이번 페이지는 끝까지 확인한다.
+                    reached = true;
+                }
+            }
+            if (reached) {
+                return true;
+            }
+            read += records.size();
+            String oldest = records.get(records.size() - 1).getId().getValue();
+            range = Range.of(Range.Bound.unbounded(), Range.Bound.exclusive(oldest));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BufferedEvent {
+        private final long id;
+        private final String name;
+        private final Object data;
+    }
+
+    // Redis Stream에서 읽어 온 JSON 문자열 (다시 직렬화하지 않고 그대로 보낸다)
+    @Getter
+    @AllArgsConstructor
+    public static class RawJson {
+        private final String json;
+    }
+
+    // 토픽 하나의 링 버퍼
+    private static class TopicBuffer {
+        private final ArrayDeque<BufferedEvent> events = new ArrayDeque<>();
+        // 버퍼가 넘쳐서 밀려났거나 전송 큐에서 버려져 버퍼에 없는 이벤트 중 가장 큰 id
+        // (id 발급과 기록이 다른 스레드에서 일어나 버퍼 안의 id 순서가 어긋날 수 있으므로 최댓값으로 유지)
+        private long evictedUpTo;
+
+        synchronized void add(BufferedEvent event, int capacity) {
+            if (!events.isEmpty() && events.size() >= capacity) {
+                evictedUpTo = Math.max(evictedUpTo, events.pollFirst().getId());
+            }
+            events.addLast(event);
+        }
+
+        synchronized void markMissing(long id) {
+            evictedUpTo = Math.max(evictedUpTo, id);
+        }
+
+        // lastEventId 이후 이벤트를 result에 담고, 빠진 구간 없이 다 찾았는지 리턴
+        synchronized boolean collectAfter(long lastEventId, Map<Long, BufferedEvent> result) {
+            for (BufferedEvent event : events) {
+                if (event.getId() > lastEventId) {
+                    result.put(event.getId(), event);
+                }
+            }
+            return evictedUpTo <= lastEventId;
+        }
+    }
+
+}
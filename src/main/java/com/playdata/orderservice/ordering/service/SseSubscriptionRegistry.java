@@ -0,0 +1,137 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.playdata.orderservice.ordering.dto.OrderCreatedEvent;
+import com.playdata.orderservice.user.entity.Role;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+// SSE 구독 정보를 보관하는 저장소
+// 한 사용자가 여러 탭(연결)을 열 수 있도록 연결마다 Subscription을 하나씩 만들고,
+// 토픽별로 구독자를 따로 모아 두기 때문에 알림을 보낼 때 전체 구독자를 훑지 않는다.
+//
+// 토픽 예시
+// - role:ADMIN        -> 관리자 전체
+// - user:a@a.com      -> 해당 사용자의 모든 연결 (내 주문 알림)
+// - category:의류      -> 해당 카테고리 상품이 포함된 주문
+public class SseSubscriptionRegistry {
+
+    // 구독 id -> 구독 정보
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    // 토픽 -> 해당 토픽의 구독자들
+    private final Map<String, Set<Subscription>> topicIndex = new ConcurrentHashMap<>();
+
+    public static String roleTopic(Role role) {
+        return "role:" + role;
+    }
+
+    public static String userTopic(String email) {
+        return "user:" + email;
+    }
+
+    public static String categoryTopic(String category) {
+        return "category:" + category;
+    }
+
+    // 주문 알림을 받을 토픽: 관리자 전체, 주문한 사용자, 주문 상품의 카테고리
+    public static List<String> orderTopics(OrderCreatedEvent event) {
+        List<String> topics = new ArrayList<>();
+        topics.add(roleTopic(Role.ADMIN));
+        topics.add(userTopic(event.getOrder().getUserEmail()));
+        if (event.getCategories() != null) {
+            event.getCategories().forEach(category -> topics.add(categoryTopic(category)));
+        }
+        return topics;
+    }
+
+    public Subscription register(String email, Role role, Set<String> topics, SseEmitter emitter) {
+        Subscription subscription = new Subscription(
+                UUID.randomUUID().toString(), email, role, Set.copyOf(topics), emitter);
+        subscriptions.put(subscription.getId(), subscription);
+
+        for (String topic : subscription.getTopics()) {
+            topicIndex.compute(topic, (key, subscribers) -> {
+                if (subscribers == null) {
+                    subscribers = ConcurrentHashMap.newKeySet();
+                }
+                subscribers.add(subscription);
+                return subscribers;
+            });
+        }
+        return subscription;
+    }
+
+    public void unregister(Subscription subscription) {
+        if (subscriptions.remove(subscription.getId()) == null) {
+            return; // 이미 정리된 구독
+        }
+        for (String topic : subscription.getTopics()) {
+            // 구독자가 하나도 남지 않은 토픽은 맵에서 지운다.
+            topicIndex.computeIfPresent(topic, (key, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    /**
+     * 주어진 토픽들 중 하나라도 구독하고 있는 구독자 목록 (중복 제거)
+     * 비용은 해당 토픽들의 구독자 수에만 비례한다.
+     */
+    public Collection<Subscription> subscribersOf(Collection<String> topics) {
+        Set<Subscription> result = new LinkedHashSet<>();
+        for (String topic : topics) {
+            Set<Subscription> subscribers = topicIndex.get(topic);
+            if (subscribers != null) {
+                result.addAll(subscribers);
+            }
+        }
+        return result;
+    }
+
+    public Collection<Subscription> all() {
+        return subscriptions.values();
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    @Getter
+    public static class Subscription {
+        private final String id;
+        private final String email;
+        private final Role role;
+        private final Set<String> topics;
+        private final SseEmitter emitter;
+
+        // 마지막으로 메시지를 보낸 시각 (heartbeat를 생략할지 판단하는 용도)
+        private volatile long lastSentAt;
+
+        public Subscription(String id, String email, Role role, Set<String> topics, SseEmitter emitter) {
+            this.id = id;
+            this.email = email;
+            this.role = role;
+            this.topics = topics;
+            this.emitter = emitter;
+        }
+
+        public void markSent() {
+            this.lastSentAt = System.currentTimeMillis();
+        }
+    }
+
+}
@@ -1,15 +1,17 @@
 package com.playdata.orderservice.product.controller;
 
 import com.playdata.orderservice.common.dto.CommonResDto;
-import com.playdata.orderservice.product.dto.ProductResDto;
+import com.playdata.orderservice.product.dto.CachedProductPage;
 import com.playdata.orderservice.product.dto.ProductSaveReqDto;
 import com.playdata.orderservice.product.dto.ProductSearchDto;
 import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.service.ProductListCache;
 import com.playdata.orderservice.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +28,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductListCache productListCache;
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/create")
@@ -50,17 +53,39 @@ public class ProductController {
     // 컨트롤러 파라미터로 Pageable 선언하면, 페이징 파라미터 처리를 쉽게 진행할 수 있음.
     // /list?page=1&size=10&sort=name,desc 요런 식으로.
     // 요청 시 쿼리스트링이 전달되지 않으면 기본값 0, 20, unsorted
+    // product.list.count-mode=none 이면 전체 개수 없이 다음 페이지 존재 여부만 담긴 Slice가 리턴된다.
     public ResponseEntity<?> listProducts(ProductSearchDto searchDto, Pageable pageable) {
         log.info("/product/list: GET, dto: {}", searchDto);
         log.info("/product/list: GET, pageable={}", pageable);
-        Page<ProductResDto> dtoList = productService.productList(searchDto, pageable);
+
+        // 커서 모드: 페이지 번호(page)는 무시하고 cursor 다음부터 size 개를 조회
+        CachedProductPage page = productService.productListPage(searchDto, pageable);
+        Object dtoList = "cursor".equals(searchDto.getMode())
+                ? page.toCursorPage()
+                : page.toSlice(pageable);
+
+        // 조건부 요청 지원: 클라이언트가 보낸 If-None-Match가 ETag와 같으면
+        // 스프링이 본문을 직렬화하지 않고 304 Not Modified로 응답한다.
+        // no-cache: 저장은 해 두되 쓰기 전에 항상 ETag로 다시 확인하라는 뜻
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(page.getEtag());
+        headers.setCacheControl(CacheControl.noCache());
 
         CommonResDto resDto
                 = new CommonResDto(HttpStatus.OK, "상품리스트 정상조회 완료", dtoList);
-        return new ResponseEntity<>(resDto, HttpStatus.OK);
+        return new ResponseEntity<>(resDto, headers, HttpStatus.OK);
     }
 
 
+    // 상품 목록 캐시 적중/실패 횟수 (ADMIN)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> cacheStats() {
+        CommonResDto resDto
+                = new CommonResDto(HttpStatus.OK, "캐시 통계 조회 완료", productListCache.stats());
+        return new ResponseEntity<>(resDto, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/delete")
     public ResponseEntity<?> productDelete(@RequestParam Long id) throws Exception {
@@ -0,0 +1,58 @@
+package com.playdata.orderservice.product.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+// 상품 목록 캐시에 저장하는 형태 (Redis에 JSON으로 저장할 수 있도록 단순한 dto로 보관)
+// 꺼낼 때 요청의 Pageable로 Page / Slice / 커서 응답을 다시 만든다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CachedProductPage {
+
+    private List<ProductResDto> content;
+    private Long total;          // 전체 개수를 모르면 (Slice) null
+    private boolean hasNext;
+    private String nextCursor;   // 커서 모드일 때만
+
+    // 위 내용으로 만든 weak ETag (내용이 같으면 같은 값 -> 클라이언트에게 304 Not Modified로 응답)
+    private String etag;
+
+    public static CachedProductPage of(Slice<ProductResDto> slice) {
+        return CachedProductPage.builder()
+                .content(slice.getContent())
+                .total(slice instanceof Page<ProductResDto> page ? page.getTotalElements() : null)
+                .hasNext(slice.hasNext())
+                .build();
+    }
+
+    public static CachedProductPage of(ProductCursorResDto cursorPage) {
+        return CachedProductPage.builder()
+                .content(cursorPage.getContent())
+                .hasNext(cursorPage.isHasNext())
+                .nextCursor(cursorPage.getNextCursor())
+                .build();
+    }
+
+    public Slice<ProductResDto> toSlice(Pageable pageable) {
+        if (total != null) {
+            return new PageImpl<>(content, pageable, total);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    public ProductCursorResDto toCursorPage() {
+        return new ProductCursorResDto(content, nextCursor, hasNext);
+    }
+
+    public boolean containsProduct(Long productId) {
+        return content.stream().anyMatch(dto -> productId.equals(dto.getId()));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.playdata.orderservice.product.dto;
+
+import lombok.*;
+
+// 상품이 등록/삭제되었을 때 발행하는 이벤트
+// 트랜잭션이 커밋된 뒤에 목록 캐시 등을 무효화하는 데 사용한다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+public class ProductChangedEvent {
+
+    private Long productId;
+
+}
@@ -0,0 +1,18 @@
+package com.playdata.orderservice.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 커서 기반 상품 목록 응답
+// nextCursor는 내용을 해석하지 말고 그대로 다음 요청의 cursor 파라미터로 넘기면 된다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ProductCursorResDto {
+
+    private List<ProductResDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+}
@@ -0,0 +1,17 @@
+package com.playdata.orderservice.product.dto;
+
+import lombok.*;
+
+import java.nio.file.Path;
+
+// 상품 등록 트랜잭션이 커밋된 뒤에 이미지를 업로드하기 위한 이벤트
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+public class ProductImageUploadEvent {
+
+    private Long productId;
+    private Path spoolFile;     // 요청에서 받은 이미지를 임시로 옮겨 둔 파일
+    private String key;         // 저장소에 저장할 파일명
+    private String contentType;
+
+}
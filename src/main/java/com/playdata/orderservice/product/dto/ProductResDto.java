@@ -1,5 +1,6 @@
 package com.playdata.orderservice.product.dto;
 
+import com.playdata.orderservice.product.entity.ImageStatus;
 import lombok.*;
 
 @Getter @Setter @ToString
@@ -14,5 +15,8 @@ public class ProductResDto {
     private Integer price;
     private Integer stockQuantity;
     private String imagePath;
+    private String thumbnailPath;   // 목록 화면에서는 원본 대신 이 이미지를 사용
+    private String mediumImagePath;
+    private ImageStatus imageStatus; // PENDING이면 이미지 업로드 중 (imagePath 없음)
 
 }
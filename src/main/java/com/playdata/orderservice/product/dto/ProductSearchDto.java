@@ -9,4 +9,9 @@ import lombok.*;
 public class ProductSearchDto {
     private String category;
     private String searchName;
+
+    // "cursor" 이면 페이지 번호 대신 커서로 다음 페이지를 조회한다.
+    // /product/list?mode=cursor&size=20&sort=price,desc -> 응답의 nextCursor를 다음 요청의 cursor로 전달
+    private String mode;
+    private String cursor;
 }
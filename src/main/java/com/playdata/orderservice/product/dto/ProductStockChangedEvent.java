@@ -0,0 +1,15 @@
+package com.playdata.orderservice.product.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 주문 등으로 상품 재고가 바뀌었을 때 발행하는 이벤트
+// 해당 상품이 들어 있는 목록 캐시만 골라서 무효화하는 데 사용한다.
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+public class ProductStockChangedEvent {
+
+    private List<Long> productIds;
+
+}
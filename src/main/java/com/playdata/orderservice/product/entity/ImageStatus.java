@@ -0,0 +1,8 @@
+package com.playdata.orderservice.product.entity;
+
+// 상품 이미지 업로드 상태
+public enum ImageStatus {
+    PENDING, // 상품은 등록되었고, 이미지는 업로드 중
+    READY,   // 업로드 완료 (imagePath 사용 가능)
+    FAILED   // 재시도까지 모두 실패
+}
@@ -15,7 +15,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tbl_product")
+// 커서 기반 목록 조회에서 자주 쓰는 정렬 컬럼 인덱스 (InnoDB 보조 인덱스에는 PK(id)가 함께 들어 있어서 (정렬 값, id) 순서로 읽힌다)
+@Table(name = "tbl_product", indexes = {
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_product_category", columnList = "category"),
+        @Index(name = "idx_product_price", columnList = "price"),
+        @Index(name = "idx_product_create_time", columnList = "createTime"),
+        @Index(name = "idx_product_image_status", columnList = "imageStatus")
+})
 public class Product extends BaseTimeEntity {
 
     @Id
@@ -27,12 +34,22 @@ public class Product extends BaseTimeEntity {
     private Integer price;
     private Integer stockQuantity;
     private String imagePath;
+    private String thumbnailPath;   // 목록용 썸네일 (긴 변 200px)
+    private String mediumImagePath; // 중간 크기 이미지 (긴 변 640px)
+
+    @Enumerated(EnumType.STRING)
+    private ImageStatus imageStatus;
 
     // 이미지 경로 setter 직접 작성
     public void updateImagePath(String imagePath) {
         this.imagePath = imagePath;
     }
 
+    // 이미지 업로드 상태 setter 직접 작성
+    public void updateImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
     // 재고 수량 setter 직접 작성
     public void updateStockQuantity(Integer stockQuantity) {
         this.stockQuantity = this.stockQuantity - stockQuantity;
@@ -47,6 +64,9 @@ public class Product extends BaseTimeEntity {
                 .price(price)
                 .stockQuantity(stockQuantity)
                 .imagePath(imagePath)
+                .thumbnailPath(thumbnailPath)
+                .mediumImagePath(mediumImagePath)
+                .imageStatus(imageStatus)
                 .build();
     }
 
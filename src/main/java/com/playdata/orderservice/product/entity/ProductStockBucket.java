@@ -0,0 +1,37 @@
+package com.playdata.orderservice.product.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 인기 상품의 재고를 여러 행으로 나눠서 저장하는 엔터티 (stock.engine=bucket 일 때 사용)
+// 주문마다 서로 다른 버킷 행을 차감하기 때문에 한 상품 행에 잠금이 몰리지 않는다.
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_product_stock_bucket",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "bucket_no"}))
+public class ProductStockBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private Integer bucketNo;
+
+    private Integer quantity;
+
+    // 재고 수량 setter 직접 작성
+    public void updateQuantity(Integer quantity) {
+        this.quantity = this.quantity - quantity;
+    }
+
+}
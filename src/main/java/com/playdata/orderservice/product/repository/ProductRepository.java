@@ -1,11 +1,40 @@
 package com.playdata.orderservice.product.repository;
 
+import com.playdata.orderservice.product.entity.ImageStatus;
 import com.playdata.orderservice.product.entity.Product;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ProductRepository
         extends JpaRepository<Product, Long> {
 
+    // 비동기 이미지 업로드가 끝났을 때 경로와 상태만 갱신 (엔터티를 읽지 않고 바로 UPDATE)
+    // 그 사이에 상품이 삭제되었다면 0을 리턴
+    @Modifying
+    @Query("update Product p set p.imagePath = :imagePath, p.thumbnailPath = :thumbnailPath, " +
+            "p.mediumImagePath = :mediumImagePath, p.imageStatus = :imageStatus where p.id = :id")
+    int updateImage(@Param("id") Long id,
+                    @Param("imagePath") String imagePath,
+                    @Param("thumbnailPath") String thumbnailPath,
+                    @Param("mediumImagePath") String mediumImagePath,
+                    @Param("imageStatus") ImageStatus imageStatus);
+
+    // 이미지 업로드가 멈춘 상품 찾기 (idx_product_image_status)
+    @Query("select p.id from Product p where p.imageStatus = :imageStatus and p.createTime < :before")
+    List<Long> findIdsByImageStatusCreatedBefore(@Param("imageStatus") ImageStatus imageStatus,
+                                                 @Param("before") LocalDateTime before);
+
+    // 상태가 expected일 때만 바꾼다. (그 사이에 업로드가 끝났다면 0을 리턴)
+    @Modifying
+    @Query("update Product p set p.imageStatus = :imageStatus where p.id = :id and p.imageStatus = :expected")
+    int updateImageStatusIf(@Param("id") Long id,
+                            @Param("expected") ImageStatus expected,
+                            @Param("imageStatus") ImageStatus imageStatus);
 
 }
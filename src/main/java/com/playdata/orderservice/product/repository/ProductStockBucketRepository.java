@@ -0,0 +1,48 @@
+package com.playdata.orderservice.product.repository;
+
+import com.playdata.orderservice.product.entity.ProductStockBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductStockBucketRepository
+        extends JpaRepository<ProductStockBucket, Long> {
+
+    // 버킷 하나에서 재고가 충분할 때만 차감 (차감된 행 수를 리턴: 0 또는 1)
+    @Modifying
+    @Query("update ProductStockBucket b set b.quantity = b.quantity - :quantity " +
+            "where b.productId = :productId and b.bucketNo = :bucketNo and b.quantity >= :quantity")
+    int decreaseQuantity(@Param("productId") Long productId,
+                         @Param("bucketNo") int bucketNo,
+                         @Param("quantity") int quantity);
+
+    // 상품의 모든 버킷을 잠그고 조회 (여러 버킷에 걸쳐서 차감해야 할 때)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ProductStockBucket b where b.productId = :productId order by b.bucketNo")
+    List<ProductStockBucket> findAllByProductIdForUpdate(@Param("productId") Long productId);
+
+    // 버킷이 만들어진 상품인지 (잠금 없는 조회)
+    boolean existsByProductId(Long productId);
+
+    // 버킷이 아직 없는 상품 id
+    @Query(value = "SELECT p.id FROM tbl_product p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM tbl_product_stock_bucket b WHERE b.product_id = p.id)",
+            nativeQuery = true)
+    List<Long> findProductIdsWithoutBuckets();
+
+    // 버킷 재고의 합계를 tbl_product.stock_quantity 에 반영 (목록 화면에 보여줄 재고)
+    @Modifying
+    @Query(value = "UPDATE tbl_product p " +
+            "JOIN (SELECT product_id, SUM(quantity) AS total " +
+            "      FROM tbl_product_stock_bucket GROUP BY product_id) b " +
+            "ON b.product_id = p.id " +
+            "SET p.stock_quantity = b.total " +
+            "WHERE p.stock_quantity <> b.total", nativeQuery = true)
+    int syncProductStockQuantities();
+
+}
@@ -0,0 +1,71 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.playdata.orderservice.product.entity.QProduct.product;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "stock.engine", havingValue = "atomic", matchIfMissing = true)
+// 조건부 UPDATE 한 번으로 재고를 차감하는 엔진 (기본값)
+// WHERE 절에서 재고를 다시 확인하기 때문에 동시 주문이 들어와도 초과 판매가 일어나지 않는다.
+public class AtomicStockReservationEngine implements StockReservationEngine {
+
+    private final JPAQueryFactory factory;
+
+    @Override
+    public void reserve(Map<Long, Product> productMap, Map<Long, Integer> quantityMap) {
+        // 조회해 온 값으로 먼저 걸러낸다. (UPDATE 까지 가지 않고 빠르게 실패)
+        for (Map.Entry<Long, Integer> entry : quantityMap.entrySet()) {
+            if (productMap.get(entry.getKey()).getStockQuantity() < entry.getValue()) {
+                throw new IllegalArgumentException("재고 부족!");
+            }
+        }
+
+        decreaseStockQuantities(quantityMap);
+    }
+
+    /**
+     * 여러 상품의 재고를 하나의 UPDATE 문으로 차감
+     * UPDATE tbl_product
+     *    SET stock_quantity = stock_quantity - (CASE id WHEN ? THEN ? ... END)
+     *  WHERE id IN (...) AND stock_quantity >= (CASE id WHEN ? THEN ? ... END)
+     * 조건을 만족하지 못한 행이 하나라도 있으면(동시 주문으로 재고가 먼저 빠진 경우) 예외 -> 롤백
+     *
+     * @param quantityMap - 상품 id, 차감할 수량
+     */
+    private void decreaseStockQuantities(Map<Long, Integer> quantityMap) {
+        Iterator<Map.Entry<Long, Integer>> iterator = quantityMap.entrySet().iterator();
+        Map.Entry<Long, Integer> first = iterator.next();
+
+        CaseBuilder.Cases<Integer, NumberExpression<Integer>> cases = new CaseBuilder()
+                .when(product.id.eq(first.getKey())).then(first.getValue());
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            cases = cases.when(product.id.eq(entry.getKey())).then(entry.getValue());
+        }
+        NumberExpression<Integer> decrease = cases.otherwise(0);
+
+        long updated = factory
+                .update(product)
+                .set(product.stockQuantity, product.stockQuantity.subtract(decrease))
+                .where(product.id.in(quantityMap.keySet()),
+                        product.stockQuantity.goe(decrease))
+                .execute();
+
+        if (updated != quantityMap.size()) {
+            throw new IllegalArgumentException("재고 부족!");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.dto.ProductChangedEvent;
+import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.entity.ProductStockBucket;
+import com.playdata.orderservice.product.repository.ProductStockBucketRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "stock.engine", havingValue = "bucket")
+// 상품 재고를 N개의 버킷 행(tbl_product_stock_bucket)으로 나눠서 차감하는 엔진
+// 주문마다 임의의 버킷부터 조건부 UPDATE를 시도하기 때문에,
+// 같은 상품에 대한 동시 주문이 서로 다른 행을 잠그게 되어 코어 수만큼 처리량이 늘어난다.
+// tbl_product.stock_quantity 는 화면 표시용으로, 버킷 합계를 주기적으로 반영한다.
+// 버킷 행은 상품 등록 직후와 주기적인 점검에서 미리 만들어 두고, 주문 처리 중에는 만들지 않는다.
+public class BucketStockReservationEngine implements StockReservationEngine {
+
+    private final ProductStockBucketRepository bucketRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // 상품 하나의 재고를 몇 개의 버킷으로 나눌지
+    @Value("${stock.bucket.count:8}")
+    private int bucketCount;
+
+    // 버킷 생성용 트랜잭션 (주문 트랜잭션과 분리, 상품 등록 커밋 이후에도 실행되므로 항상 새 트랜잭션)
+    private TransactionTemplate bucketTransaction;
+
+    @PostConstruct
+    private void initializeBucketTransaction() {
+        bucketTransaction = new TransactionTemplate(transactionManager);
+        bucketTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void reserve(Map<Long, Product> productMap, Map<Long, Integer> quantityMap) {
+        // 여러 상품을 잠글 수 있으니 상품 id 순서대로 처리해서 데드락을 피한다.
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantityMap).entrySet()) {
+            reserveOne(productMap.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    private void reserveOne(Product product, int quantity) {
+        // 1. 임의의 버킷부터 돌아가면서 버킷 하나로 차감을 시도 (잠금이 한 행으로 몰리지 않는다)
+        int start = ThreadLocalRandom.current().nextInt(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            int bucketNo = (start + i) % bucketCount;
+            if (bucketRepository.decreaseQuantity(product.getId(), bucketNo, quantity) == 1) {
+                return;
+            }
+        }
+
+        // 2. 버킷 하나로는 부족한 경우 -> 버킷을 모두 잠그고 여러 버킷에 걸쳐서 차감
+        List<ProductStockBucket> buckets = bucketRepository.findAllByProductIdForUpdate(product.getId());
+        if (buckets.isEmpty()) {
+            // 버킷은 주문 트랜잭션 안에서 만들지 않는다. (상품 등록 직후와 주기적인 점검에서 생성)
+            // 빈 범위를 잠그면 InnoDB 갭 잠금이 걸려서, 처음 들어온 주문 두 건이 서로의 INSERT를 막아 데드락이 난다.
+            throw new StockTemporarilyUnavailableException("재고를 준비하는 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        int total = buckets.stream().mapToInt(ProductStockBucket::getQuantity).sum();
+        if (total < quantity) {
+            throw new IllegalArgumentException("재고 부족!");
+        }
+
+        int remaining = quantity;
+        for (ProductStockBucket bucket : buckets) {
+            int take = Math.min(remaining, bucket.getQuantity());
+            bucket.updateQuantity(take); // 더티 체킹
+            remaining -= take;
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    // 상품이 등록되면(커밋 후) 바로 버킷을 만든다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        initializeBuckets(event.getProductId());
+    }
+
+    // 버킷이 없는 상품(버킷 모드로 바꾸기 전에 등록된 상품 등)의 버킷을 만든다. 서버 시작 시 바로 한 번 실행된다.
+    @Scheduled(fixedDelayString = "${stock.bucket.init-interval-ms:60000}")
+    public void initializeMissingBuckets() {
+        for (Long productId : bucketRepository.findProductIdsWithoutBuckets()) {
+            try {
+                initializeBuckets(productId);
+            } catch (Exception e) {
+                log.warn("Failed to initialize stock buckets for product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    // 상품 재고를 버킷 수만큼 나눠서 버킷 행을 생성 (주문과 별개의 짧은 트랜잭션)
+    // 상품 행을 먼저 잠근 뒤 잠금 없는 조회로 버킷이 있는지 확인하므로, 버킷 인덱스에 갭 잠금을 걸지 않는다.
+    private void initializeBuckets(Long productId) {
+        bucketTransaction.executeWithoutResult(status -> {
+            // 상품 행을 잠가서 두 트랜잭션이 동시에 같은 상품의 버킷을 만드는 것을 막는다.
+            Product product = em.find(Product.class, productId, LockModeType.PESSIMISTIC_WRITE);
+            if (product == null || bucketRepository.existsByProductId(productId)) {
+                return;
+            }
+
+            log.info("Initializing {} stock buckets for product {}", bucketCount, productId);
+            int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+            List<ProductStockBucket> buckets = new ArrayList<>();
+            for (int bucketNo = 0; bucketNo < bucketCount; bucketNo++) {
+                // 나머지는 앞쪽 버킷부터 하나씩 더 준다.
+                int quantity = stock / bucketCount + (bucketNo < stock % bucketCount ? 1 : 0);
+                buckets.add(ProductStockBucket.builder()
+                        .productId(productId)
+                        .bucketNo(bucketNo)
+                        .quantity(quantity)
+                        .build());
+            }
+            bucketRepository.saveAll(buckets);
+        });
+    }
+
+    // 버킷 재고 합계를 주기적으로 tbl_product.stock_quantity 에 반영 (주문 처리 경로 밖에서 실행)
+    @Scheduled(fixedDelayString = "${stock.bucket.sync-interval-ms:5000}")
+    @Transactional
+    public void syncProductStockQuantities() {
+        int updated = bucketRepository.syncProductStockQuantities();
+        if (updated > 0) {
+            log.debug("Synced stock quantity of {} products from buckets", updated);
+        }
+    }
+}
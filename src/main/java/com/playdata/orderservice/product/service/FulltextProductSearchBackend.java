@@ -0,0 +1,83 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "product.search.backend", havingValue = "fulltext")
+// MySQL FULLTEXT 인덱스(ngram parser)로 검색하는 백엔드
+// 색인은 MySQL이 INSERT/DELETE 때 알아서 갱신하므로 index/remove는 할 일이 없다.
+// 서버가 여러 대여도 모두 같은 색인을 보기 때문에, 서버 간 색인 차이가 없다.
+//
+// ngram_token_size(기본값 2)보다 짧은 검색어는 FULLTEXT로 찾을 수 없어서 LIKE 검색으로 대신한다.
+public class FulltextProductSearchBackend implements ProductSearchBackend {
+
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // FULLTEXT 인덱스는 배포 전에 DB 마이그레이션으로 만들어 둔다. (JPA로는 FULLTEXT 인덱스를 선언할 수 없음)
+    //   ALTER TABLE tbl_product ADD FULLTEXT INDEX ft_product_name (name) WITH PARSER ngram;
+    //   ALTER TABLE tbl_product ADD FULLTEXT INDEX ft_product_category (category) WITH PARSER ngram;
+    // 서버 시작 시 ALTER TABLE을 실행하면 큰 테이블에서는 오래 걸리고 여러 서버가 동시에 실행할 수 있으므로,
+    // 로컬/테스트 환경에서만 켜서 쓴다. 꺼져 있을 때 인덱스가 없으면 경고만 남긴다.
+    @Value("${product.search.fulltext.create-index:false}")
+    private boolean createIndex;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        ensureIndex("ft_product_name", "name");
+        ensureIndex("ft_product_category", "category");
+    }
+
+    @Override
+    public Collection<Long> search(Field field, String term) {
+        if (term == null || term.strip().length() < NGRAM_TOKEN_SIZE) {
+            return null;
+        }
+        String column = field == Field.NAME ? "name" : "category";
+
+        // 큰따옴표로 감싼 구문 검색 -> 검색어의 n-gram이 연속으로 나오는 상품만 (LIKE '%검색어%'와 같은 의미)
+        // BOOLEAN MODE는 50% 임계값 없이 일치하는 행을 모두 돌려준다.
+        String phrase = '"' + term.strip().replace("\"", " ") + '"';
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM tbl_product WHERE MATCH(" + column + ") AGAINST (? IN BOOLEAN MODE)",
+                Long.class, phrase);
+    }
+
+    @Override
+    public void index(Product product) {
+    }
+
+    @Override
+    public void remove(Long productId) {
+    }
+
+    private void ensureIndex(String indexName, String column) {
+        Integer exists = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'tbl_product' AND index_name = ?
+                """, Integer.class, indexName);
+        if (exists != null && exists > 0) {
+            return;
+        }
+        if (!createIndex) {
+            log.warn("FULLTEXT index {} on tbl_product({}) is missing, product search will fail", indexName, column);
+            return;
+        }
+        log.info("Creating FULLTEXT index {} on tbl_product({})", indexName, column);
+        jdbcTemplate.execute("ALTER TABLE tbl_product ADD FULLTEXT INDEX "
+                + indexName + " (" + column + ") WITH PARSER ngram");
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "stock.engine", havingValue = "jpa")
+// 상품 행을 잠그고(SELECT ... FOR UPDATE) 더티 체킹으로 재고를 차감하는 엔진 (기존 방식)
+// 같은 상품을 주문하는 트랜잭션은 행 잠금 때문에 한 줄로 서게 된다.
+public class JpaStockReservationEngine implements StockReservationEngine {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public void reserve(Map<Long, Product> productMap, Map<Long, Integer> quantityMap) {
+        // 데드락을 피하기 위해 항상 상품 id 순서대로 잠근다.
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantityMap).entrySet()) {
+            Product product = productMap.get(entry.getKey());
+
+            // 잠금과 동시에 최신 재고를 다시 읽어온다. (먼저 조회해 둔 값은 이미 낡았을 수 있다)
+            em.refresh(product, LockModeType.PESSIMISTIC_WRITE);
+
+            int quantity = entry.getValue();
+            if (product.getStockQuantity() < quantity) {
+                throw new IllegalArgumentException("재고 부족!");
+            }
+
+            // 재고가 부족하지 않다면 재고 수량을 주문 수량만큼 빼 주자. (더티 체킹)
+            product.updateStockQuantity(quantity);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "product.search.backend", havingValue = "memory", matchIfMissing = true)
+// 서버 메모리에 두는 n-gram 역색인
+// 상품 이름/카테고리를 글자 1개(unigram), 2개(bigram) 단위로 잘라서 "조각 -> 상품 id 목록"으로 보관한다.
+// 한글은 띄어쓰기 없이 붙여 쓰는 경우가 많아서 형태소 대신 글자 단위로 자른다.
+// 검색어의 bigram을 모두 가진 상품만 후보로 추리고, 원문에 검색어가 실제로 들어 있는지 확인해서 LIKE와 같은 결과를 낸다.
+//
+// 서버가 여러 대라면 다른 서버에서 등록/삭제한 상품은 주기적인 재색인 때 반영된다.
+public class NgramProductSearchBackend implements ProductSearchBackend {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 현재 검색에 사용하는 색인
+    private volatile NgramIndex current = new NgramIndex();
+
+    // 재색인 중에 들어온 등록/삭제를 새 색인에도 반영하기 위한 참조
+    private volatile NgramIndex building;
+
+    private final Object rebuildLock = new Object();
+
+    @Override
+    public Collection<Long> search(Field field, String term) {
+        return current.search(field, normalize(term));
+    }
+
+    @Override
+    public void index(Product product) {
+        afterCommit(() -> apply(index -> index.add(product.getId(), product.getName(), product.getCategory())));
+    }
+
+    @Override
+    public void remove(Long productId) {
+        afterCommit(() -> apply(index -> index.remove(productId)));
+    }
+
+    // 서버 시작 시, 그리고 주기적으로 DB의 상품 전체로 색인을 새로 만든다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product.search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            NgramIndex fresh = new NgramIndex();
+            building = fresh;
+            try {
+                jdbcTemplate.query("SELECT id, name, category FROM tbl_product", (RowCallbackHandler) rs ->
+                        fresh.add(rs.getLong("id"), rs.getString("name"), rs.getString("category")));
+                current = fresh;
+                log.info("Rebuilt product search index: {} products", fresh.size());
+            } finally {
+                building = null;
+            }
+        }
+    }
+
+    // 재색인이 도는 동안에도 등록/삭제는 기다리지 않고 바로 반영된다.
+    private void apply(Consumer<NgramIndex> change) {
+        change.accept(current);
+        NgramIndex next = building;
+        if (next != null) {
+            change.accept(next);
+        }
+    }
+
+    // 롤백된 등록/삭제가 색인에 남지 않도록 커밋 이후에 반영
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    // MySQL 기본 collation의 LIKE처럼 대소문자를 구분하지 않는다.
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class NgramIndex {
+        private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> nameGrams = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> categoryGrams = new ConcurrentHashMap<>();
+
+        int size() {
+            return documents.size();
+        }
+
+        // 재색인과 등록이 겹치면 같은 상품이 두 번 들어올 수 있으므로 덮어쓰기로 처리
+        void add(long id, String name, String category) {
+            remove(id);
+            String[] document = {normalize(name), normalize(category)};
+            documents.put(id, document);
+            addGrams(nameGrams, document[0], id);
+            addGrams(categoryGrams, document[1], id);
+        }
+
+        void remove(long id) {
+            String[] document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            removeGrams(nameGrams, document[0], id);
+            removeGrams(categoryGrams, document[1], id);
+        }
+
+        Collection<Long> search(Field field, String term) {
+            if (term.isEmpty()) {
+                return null;
+            }
+            Map<String, Set<Long>> grams = field == Field.NAME ? nameGrams : categoryGrams;
+            int column = field == Field.NAME ? 0 : 1;
+
+            if (term.length() == 1) {
+                return new ArrayList<>(grams.getOrDefault(term, Set.of()));
+            }
+
+            // 가장 적은 상품을 가진 bigram부터 교집합을 구한다.
+            List<Set<Long>> postings = new ArrayList<>();
+            for (String gram : bigrams(term)) {
+                Set<Long> ids = grams.get(gram);
+                if (ids == null) {
+                    return List.of();
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+
+            List<Long> result = new ArrayList<>();
+            for (Long id : postings.get(0)) {
+                boolean matched = true;
+                for (int i = 1; i < postings.size() && matched; i++) {
+                    matched = postings.get(i).contains(id);
+                }
+                // bigram이 모두 있어도 순서가 다를 수 있으므로 원문으로 최종 확인
+                String[] document = documents.get(id);
+                if (matched && document != null && document[column].contains(term)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        private static void addGrams(Map<String, Set<Long>> grams, String text, long id) {
+            for (String gram : grams(text)) {
+                grams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private static void removeGrams(Map<String, Set<Long>> grams, String text, long id) {
+            for (String gram : grams(text)) {
+                grams.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        // unigram + bigram
+        private static Set<String> grams(String text) {
+            Set<String> grams = new HashSet<>(bigrams(text));
+            for (int i = 0; i < text.length(); i++) {
+                grams.add(text.substring(i, i + 1));
+            }
+            return grams;
+        }
+
+        private static Set<String> bigrams(String text) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + 2 <= text.length(); i++) {
+                grams.add(text.substring(i, i + 2));
+            }
+            return grams;
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.playdata.orderservice.product.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+@Component
+@Slf4j
+// 원본 이미지로 목록용 축소 이미지(썸네일, 중간 크기)를 만드는 객체
+// 목록 화면이 원본 대신 작은 이미지를 받도록 해서 페이지 용량을 줄인다.
+// ProductImageUploader의 업로드 스레드 풀에서 호출되므로 동시에 처리되는 이미지 수도 풀 크기로 제한된다.
+public class ProductImageProcessor {
+
+    public enum Variant {
+        THUMBNAIL("thumb", 200),
+        MEDIUM("medium", 640);
+
+        @Getter
+        private final String prefix;
+        private final int maxSize; // 긴 변 기준 최대 픽셀
+
+        Variant(String prefix, int maxSize) {
+            this.prefix = prefix;
+            this.maxSize = maxSize;
+        }
+    }
+
+    // 압축 품질 (0.0 ~ 1.0)
+    @Value("${product.image.quality:0.8}")
+    private float quality;
+
+    // 변형 이미지도 원본과 같은 spool 디렉토리에 만든다. (ProductImageUploader가 오래된 파일을 정리한다)
+    @Value("${product.image.spool-dir:spool/product-images}")
+    private String spoolDir;
+
+    /**
+     * 원본 이미지로 변형 이미지 파일들을 만든다.
+     * JDK에 WebP 인코더가 없으므로 WebP 쓰기를 지원하는 ImageIO 플러그인이 있을 때만 WebP, 아니면 JPEG로 만든다.
+     *
+     * @return - 변형 종류별 임시 파일 (이미지로 읽을 수 없는 파일이면 빈 Map). 다 쓴 파일은 호출한 쪽에서 지운다.
+     */
+    public Map<Variant, Path> createVariants(Path source) throws IOException {
+        Map<Variant, Path> variants = new EnumMap<>(Variant.class);
+        String format = outputFormat();
+        Path dir = Files.createDirectories(Paths.get(spoolDir));
+
+        try {
+            for (Variant variant : Variant.values()) {
+                BufferedImage image = read(source, variant.maxSize);
+                if (image == null) {
+                    return variants;
+                }
+                BufferedImage resized = resize(image, variant.maxSize);
+                Path output = Files.createTempFile(dir, variant.prefix + "-", "." + extension());
+                variants.put(variant, output);
+                write(resized, format, output);
+            }
+            return variants;
+        } catch (IOException | RuntimeException e) {
+            // 중간에 실패하면 이미 만든 파일은 여기서 지운다.
+            for (Path path : variants.values()) {
+                Files.deleteIfExists(path);
+            }
+            throw e;
+        }
+    }
+
+    public String extension() {
+        return "webp".equals(outputFormat()) ? "webp" : "jpg";
+    }
+
+    public String contentType() {
+        return "webp".equals(outputFormat()) ? "image/webp" : "image/jpeg";
+    }
+
+    private String outputFormat() {
+        return ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp" : "jpeg";
+    }
+
+    // 큰 원본을 통째로 디코딩하지 않도록, 만들 크기의 두 배 정도까지 건너뛰며(subsampling) 읽는다.
+    private BufferedImage read(Path source, int maxSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (maxSize * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 비율을 유지하면서 긴 변을 maxSize에 맞춘다. (원본이 더 작으면 크기는 그대로)
+    // JPEG는 투명도를 지원하지 않으므로 흰 배경 위에 그린다.
+    private BufferedImage resize(BufferedImage image, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private void write(BufferedImage image, String format, Path output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(output.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+}
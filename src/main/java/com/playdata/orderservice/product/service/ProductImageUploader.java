@@ -0,0 +1,404 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.common.storage.StorageService;
+import com.playdata.orderservice.product.dto.ProductImageUploadEvent;
+import com.playdata.orderservice.product.dto.ProductStockChangedEvent;
+import com.playdata.orderservice.product.entity.ImageStatus;
+import com.playdata.orderservice.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+// 상품 이미지 비동기 업로드
+// 상품 등록 요청은 이미지를 임시 파일로 옮기고 상품을 PENDING 상태로 저장한 뒤 바로 리턴한다.
+// 트랜잭션이 커밋되면 업로드 전용 스레드 풀에서 축소 이미지를 만들어 원본과 함께 저장소(S3 등)에 올리고,
+// 끝나면 이미지 경로들과 상태를 갱신한다.
+// -> 느린 S3 때문에 DB 커넥션을 붙잡고 있지 않는다.
+//
+// 업로드가 끝나기 전에 서버가 내려가도 이미지를 잃지 않도록 spool 디렉토리에 "{상품 id}.upload" 티켓을 남긴다.
+// 티켓과 임시 파일은 업로드가 끝나거나(READY) 최종 실패(FAILED)했을 때만 지우고,
+// 서버 시작 시 / 주기적으로 남은 티켓을 다시 큐에 넣는다. (spool 디렉토리는 재시작해도 지워지지 않는 곳이어야 한다)
+// 티켓이 없는 서버에서 오래 PENDING으로 남은 상품은 FAILED로 바꾼다.
+public class ProductImageUploader {
+
+    private final StorageService storageService;
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductImageProcessor imageProcessor;
+
+    // 업로드를 동시에 진행할 스레드 수
+    @Value("${product.image.upload.pool-size:4}")
+    private int poolSize;
+
+    // 대기할 수 있는 업로드 수
+    // 가득 차면 요청 스레드에서 올리지 않고(DB 커넥션을 붙잡게 된다) 티켓만 남겨 두었다가 recover()가 다시 큐에 넣는다.
+    @Value("${product.image.upload.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${product.image.upload.max-attempts:3}")
+    private int maxAttempts;
+
+    // 재시도 대기 시간 (시도할 때마다 두 배)
+    @Value("${product.image.upload.retry-backoff-ms:1000}")
+    private long retryBackoff;
+
+    // 업로드 전까지 이미지를 보관할 디렉토리 (OS 임시 디렉토리는 재시작 때 비워질 수 있어서 작업 디렉토리 아래에 둔다)
+    @Value("${product.image.spool-dir:spool/product-images}")
+    private String spoolDir;
+
+    // 이 시간보다 오래 PENDING인 상품은 업로드가 멈춘 것으로 본다. (재시도를 모두 합친 시간보다 충분히 길게)
+    @Value("${product.image.upload.stale-after-ms:1800000}")
+    private long staleAfter;
+
+    private static final String TICKET_SUFFIX = ".upload";
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    // 이 서버에서 큐에 들어가 있거나 업로드 중인 상품 id (같은 상품을 두 번 올리지 않도록)
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(Paths.get(spoolDir));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "product-image-upload-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // 업로드 결과는 항상 별도 트랜잭션으로 커밋한다.
+        // (커밋 이후 리스너에서 호출되면 이미 끝난 상품 등록 트랜잭션에 참여하게 되어 UPDATE가 커밋되지 않는다)
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // 30초 안에 끝나지 않은 업로드는 중단한다. 티켓과 임시 파일은 남겨 두고 다음 시작 때 다시 올린다.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            List<Runnable> queued = executor.shutdownNow();
+            log.warn("Stopped image uploader with {} queued uploads, they will resume on next start", queued.size());
+        }
+    }
+
+    /**
+     * 요청으로 받은 이미지를 업로드 전까지 보관할 임시 파일로 옮긴다.
+     * (톰캣이 이미 디스크에 받아 둔 파일이라면 복사 없이 이동만 한다)
+     */
+    public Path spool(MultipartFile image) throws IOException {
+        Path spoolFile = Files.createTempFile(Paths.get(spoolDir), "image-", ".tmp");
+        image.transferTo(spoolFile);
+        return spoolFile;
+    }
+
+    /**
+     * 상품 등록 중 이벤트를 발행하기 전에 실패했을 때 임시 파일 정리
+     */
+    public void discard(Path spoolFile) {
+        deleteSpoolFile(spoolFile);
+    }
+
+    // 상품 등록이 커밋된 뒤에 업로드 시작
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductCreated(ProductImageUploadEvent event) {
+        try {
+            writeTicket(event);
+        } catch (IOException e) {
+            // 티켓이 없으면 재시작 후에는 다시 올릴 수 없고, 오래 PENDING으로 남으면 FAILED로 바뀐다.
+            log.warn("Could not write upload ticket for product {}: {}", event.getProductId(), e.getMessage());
+        }
+        submit(event);
+    }
+
+    // 상품 등록이 롤백되면 올릴 필요가 없으므로 임시 파일만 정리
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onProductCreateRolledBack(ProductImageUploadEvent event) {
+        deleteSpoolFile(event.getSpoolFile());
+    }
+
+    /**
+     * 서버 시작 시, 그리고 주기적으로 끝나지 않은 업로드를 정리한다.
+     * - 이 서버에 티켓이 남아 있고 진행 중이 아닌 업로드는 다시 큐에 넣는다. (임시 파일이 없으면 FAILED)
+     * - 오래 PENDING인데 이 서버에서 진행 중이 아닌 상품은 FAILED로 바꾼다. (다른 서버에서 나중에 끝나면 READY로 덮어쓴다)
+     * - 티켓이 가리키지 않는 오래된 임시 파일은 지운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.image.upload.recovery-interval-ms:60000}",
+            fixedDelayString = "${product.image.upload.recovery-interval-ms:60000}")
+    public void recover() {
+        Path dir = Paths.get(spoolDir);
+        Instant staleBefore = Instant.now().minusMillis(staleAfter);
+        Set<Path> referenced = new HashSet<>();
+
+        try (DirectoryStream<Path> tickets = Files.newDirectoryStream(dir, "*" + TICKET_SUFFIX)) {
+            for (Path ticket : tickets) {
+                ProductImageUploadEvent event = readTicket(ticket);
+                if (event == null) {
+                    deleteSpoolFile(ticket);
+                    continue;
+                }
+                referenced.add(event.getSpoolFile());
+                if (inFlight.contains(event.getProductId())) {
+                    continue;
+                }
+                if (!Files.exists(event.getSpoolFile())) {
+                    log.warn("Spooled image for product {} is missing, marking FAILED", event.getProductId());
+                    markFailed(event.getProductId());
+                    deleteSpoolFile(ticket);
+                    continue;
+                }
+                log.info("Resuming image upload for product {}", event.getProductId());
+                submit(event);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read upload tickets in {}: {}", dir, e.getMessage());
+            return;
+        }
+
+        List<Long> stale = transactionTemplate.execute(tx -> productRepository.findIdsByImageStatusCreatedBefore(
+                ImageStatus.PENDING, LocalDateTime.ofInstant(staleBefore, ZoneId.systemDefault())));
+        for (Long productId : stale) {
+            if (!inFlight.contains(productId) && !Files.exists(ticketPath(productId))) {
+                log.warn("Image upload for product {} never finished, marking FAILED", productId);
+                markFailed(productId);
+            }
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir,
+                file -> !file.getFileName().toString().endsWith(TICKET_SUFFIX) && !referenced.contains(file))) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(staleBefore)) {
+                    deleteSpoolFile(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean spool directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void submit(ProductImageUploadEvent event) {
+        Long productId = event.getProductId();
+        if (!inFlight.add(productId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    upload(event);
+                } finally {
+                    inFlight.remove(productId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(productId);
+            // 큐가 가득 찼거나 종료 중 -> 티켓이 남아 있으므로 recover()가 다시 큐에 넣는다.
+            log.warn("Image upload for product {} was not queued ({}), it will be retried by recovery",
+                    productId, e.getMessage());
+        }
+    }
+
+    private void upload(ProductImageUploadEvent event) {
+        // 축소 이미지는 재시도와 상관없이 한 번만 만든다.
+        Map<ProductImageProcessor.Variant, Path> variants = createVariants(event);
+        // 지금까지 저장소에 올라간 파일 (최종 실패하면 지운다)
+        Set<String> uploaded = new LinkedHashSet<>();
+        boolean finished = true;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    String url = storageService.upload(event.getSpoolFile(), event.getKey(), event.getContentType());
+                    uploaded.add(url);
+                    Map<ProductImageProcessor.Variant, String> variantUrls = uploadVariants(event, variants, uploaded);
+                    complete(event.getProductId(), url, variantUrls);
+                    return;
+                } catch (Exception e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException(e.getMessage());
+                    }
+                    if (attempt >= maxAttempts) {
+                        log.error("Image upload for product {} failed after {} attempts: {}",
+                                event.getProductId(), attempt, e.getMessage());
+                        deleteUploaded(event.getProductId(), uploaded);
+                        updateImage(event.getProductId(), null, Map.of(), ImageStatus.FAILED);
+                        return;
+                    }
+                    log.warn("Image upload for product {} failed (attempt {}), retrying: {}",
+                            event.getProductId(), attempt, e.getMessage());
+                    Thread.sleep(retryBackoff << (attempt - 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            // 서버 종료로 중단됨 -> PENDING 그대로 두고 다음 시작 때 다시 올린다.
+            Thread.currentThread().interrupt();
+            finished = false;
+        } finally {
+            variants.values().forEach(this::deleteSpoolFile);
+            if (finished) {
+                deleteSpoolFile(event.getSpoolFile());
+                deleteSpoolFile(ticketPath(event.getProductId()));
+            }
+        }
+    }
+
+    // 축소 이미지를 만들지 못해도 원본 업로드는 계속 진행 (목록 화면은 원본으로 대신한다)
+    private Map<ProductImageProcessor.Variant, Path> createVariants(ProductImageUploadEvent event) {
+        try {
+            return imageProcessor.createVariants(event.getSpoolFile());
+        } catch (Exception e) {
+            log.warn("Could not create image variants for product {}: {}", event.getProductId(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // 축소 이미지는 원본 옆에 "종류_원본파일명.확장자"로 저장
+    private Map<ProductImageProcessor.Variant, String> uploadVariants(
+            ProductImageUploadEvent event, Map<ProductImageProcessor.Variant, Path> variants,
+            Set<String> uploaded) throws IOException {
+        Map<ProductImageProcessor.Variant, String> urls = new EnumMap<>(ProductImageProcessor.Variant.class);
+        for (Map.Entry<ProductImageProcessor.Variant, Path> entry : variants.entrySet()) {
+            String key = entry.getKey().getPrefix() + "_" + event.getKey() + "." + imageProcessor.extension();
+            String url = storageService.upload(entry.getValue(), key, imageProcessor.contentType());
+            uploaded.add(url);
+            urls.put(entry.getKey(), url);
+        }
+        return urls;
+    }
+
+    // 일부만 올라간 채로 실패했다면 참조하는 상품이 없는 파일이 남지 않도록 지운다.
+    private void deleteUploaded(Long productId, Set<String> uploaded) {
+        for (String url : uploaded) {
+            try {
+                storageService.delete(url);
+            } catch (Exception e) {
+                log.warn("Could not delete {} after failed upload for product {}: {}", url, productId, e.getMessage());
+            }
+        }
+    }
+
+    private void complete(Long productId, String url,
+                          Map<ProductImageProcessor.Variant, String> variantUrls) throws Exception {
+        if (updateImage(productId, url, variantUrls, ImageStatus.READY)) {
+            return;
+        }
+        // 업로드하는 사이에 상품이 삭제되었다면 올린 이미지도 지운다.
+        log.info("Product {} was deleted during image upload, removing {}", productId, url);
+        storageService.delete(url);
+        for (String variantUrl : variantUrls.values()) {
+            storageService.delete(variantUrl);
+        }
+    }
+
+    private boolean updateImage(Long productId, String url,
+                                Map<ProductImageProcessor.Variant, String> variantUrls, ImageStatus status) {
+        Integer updated = transactionTemplate.execute(tx -> productRepository.updateImage(productId, url,
+                variantUrls.get(ProductImageProcessor.Variant.THUMBNAIL),
+                variantUrls.get(ProductImageProcessor.Variant.MEDIUM),
+                status));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        // 목록 캐시에 남아 있는 PENDING 상태를 지운다.
+        eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(productId)));
+        return true;
+    }
+
+    // 다른 서버가 그 사이에 READY로 바꿨다면 덮어쓰지 않는다.
+    private void markFailed(Long productId) {
+        Integer updated = transactionTemplate.execute(tx ->
+                productRepository.updateImageStatusIf(productId, ImageStatus.PENDING, ImageStatus.FAILED));
+        if (updated != null && updated > 0) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(List.of(productId)));
+        }
+    }
+
+    private Path ticketPath(Long productId) {
+        return Paths.get(spoolDir).resolve(productId + TICKET_SUFFIX);
+    }
+
+    // 임시 파일에 바로 쓰고 이름을 바꿔서, 쓰다가 죽어도 반쯤 쓴 티켓이 남지 않게 한다.
+    private void writeTicket(ProductImageUploadEvent event) throws IOException {
+        Properties ticket = new Properties();
+        ticket.setProperty("productId", String.valueOf(event.getProductId()));
+        ticket.setProperty("spoolFile", event.getSpoolFile().getFileName().toString());
+        ticket.setProperty("key", event.getKey());
+        if (event.getContentType() != null) {
+            ticket.setProperty("contentType", event.getContentType());
+        }
+        Path target = ticketPath(event.getProductId());
+        Path temp = Files.createTempFile(Paths.get(spoolDir), "ticket-", ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            ticket.store(writer, null);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ProductImageUploadEvent readTicket(Path ticketFile) {
+        Properties ticket = new Properties();
+        try (Reader reader = Files.newBufferedReader(ticketFile, StandardCharsets.UTF_8)) {
+            ticket.load(reader);
+            return new ProductImageUploadEvent(
+                    Long.valueOf(ticket.getProperty("productId")),
+                    Paths.get(spoolDir).resolve(ticket.getProperty("spoolFile")),
+                    ticket.getProperty("key"),
+                    ticket.getProperty("contentType"));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable upload ticket {}: {}", ticketFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled image {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+}
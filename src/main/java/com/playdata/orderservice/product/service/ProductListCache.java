@@ -0,0 +1,307 @@
+package com.playdata.orderservice.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderservice.common.cache.LocalTtlCache;
+import com.playdata.orderservice.product.dto.CachedProductPage;
+import com.playdata.orderservice.product.dto.ProductChangedEvent;
+import com.playdata.orderservice.product.dto.ProductResDto;
+import com.playdata.orderservice.product.dto.ProductStockChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+// 상품 목록 2단계 캐시 (읽을 때 없으면 DB에서 불러와서 채우는 read-through)
+// L1: 서버 메모리 (개수, TTL 제한) -> L2: Redis (모든 서버가 공유) -> DB
+//
+// 무효화
+// - 상품 등록/삭제: 어떤 페이지든 내용이 밀리거나 당겨질 수 있으므로 목록 버전을 올려서 전체 무효화
+//   (Redis 키에 버전이 들어 있어서 예전 버전의 키는 더 이상 읽히지 않고 TTL이 지나면 사라진다)
+// - 재고 변경: 해당 상품이 들어 있는 페이지만 골라서 무효화
+//   (Redis에는 상품 id -> 그 상품이 들어 있는 캐시 키 목록(Set)을 함께 저장해 둔다)
+// 다른 서버의 L1도 비울 수 있도록 무효화 내용은 Redis 채널로 알린다.
+//
+// 불러오는 도중의 재고 변경
+// DB에서 읽는 사이에 재고 변경이 커밋되어 무효화가 먼저 끝나면, 읽어 둔(이미 낡은) 페이지를 L2에 다시 써서 되살릴 수 있다.
+// 무효화할 때마다 무효화 번호(epoch)를 올리고 상품별로 마지막 무효화 번호를 남겨 두며,
+// 불러오기 전에 읽은 번호보다 나중에 무효화된 상품이 페이지에 있으면 L2에 쓰지 않는다. (비교와 저장은 Lua 스크립트 하나로)
+public class ProductListCache {
+
+    private static final String KEY_PREFIX = "product:list:";
+    private static final String VERSION_KEY = "product:list:version";
+    private static final String REFS_KEY_PREFIX = "product:list:refs:";
+    private static final String EPOCH_KEY = "product:list:evict-epoch";
+    private static final String EVICTED_KEY_PREFIX = "product:list:evicted:";
+
+    // 페이지를 저장하면서, 페이지에 들어 있는 상품마다 이 캐시 키를 기억해 둔다.
+    // 불러오기 전에 읽은 무효화 번호보다 나중에 무효화된 상품이 있으면 저장하지 않고 0을 리턴
+    // KEYS: 캐시 키, (상품별 참조 키, 상품별 무효화 번호 키)... / ARGV: JSON, TTL(ms), 불러오기 전 무효화 번호
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local epoch = tonumber(ARGV[3])
+            for i = 2, #KEYS, 2 do
+              local evicted = redis.call('GET', KEYS[i + 1])
+              if evicted and tonumber(evicted) > epoch then
+                return 0
+              end
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            for i = 2, #KEYS, 2 do
+              redis.call('SADD', KEYS[i], KEYS[1])
+              redis.call('PEXPIRE', KEYS[i], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    // 무효화 번호를 올리고, 상품이 들어 있는 캐시 키들을 모두 지운다.
+    // KEYS: 무효화 번호 키, (상품별 참조 키, 상품별 무효화 번호 키)... / ARGV: TTL(ms)
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>("""
+            local epoch = redis.call('INCR', KEYS[1])
+            local count = 0
+            for i = 2, #KEYS, 2 do
+              local members = redis.call('SMEMBERS', KEYS[i])
+              for _, key in ipairs(members) do
+                count = count + redis.call('DEL', key)
+              end
+              redis.call('DEL', KEYS[i])
+              redis.call('SET', KEYS[i + 1], epoch, 'PX', ARGV[1])
+            end
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.cache.l1-ttl-ms:5000}")
+    private long l1Ttl;
+
+    @Value("${product.cache.l1-max-size:1000}")
+    private int l1MaxSize;
+
+    @Value("${product.cache.l2-ttl-ms:300000}")
+    private long l2Ttl;
+
+    @Value("${product.cache.channel:product-cache}")
+    private String channel;
+
+    private LocalTtlCache<String, CachedProductPage> l1;
+
+    // 현재 목록 버전 (등록/삭제 때마다 Redis에서 증가시키고, 채널로 다른 서버에 알린다)
+    private volatile long version;
+
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong l2Misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        l1 = new LocalTtlCache<>(l1Ttl, l1MaxSize);
+        try {
+            String current = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            version = current == null ? 0 : Long.parseLong(current);
+        } catch (Exception e) {
+            log.warn("Could not read product list cache version: {}", e.getMessage());
+        }
+        listenerContainer.addMessageListener(this::onInvalidationMessage, new ChannelTopic(channel));
+    }
+
+    /**
+     * 캐시된 페이지를 리턴하고, 없으면 loader로 DB에서 불러와서 L1, L2에 저장
+     *
+     * @param paramKey - 검색/페이지 조건으로 만든 키 (버전은 여기서 붙인다)
+     */
+    public CachedProductPage get(String paramKey, Supplier<CachedProductPage> loader) {
+        if (!enabled) {
+            loads.incrementAndGet();
+            return load(loader);
+        }
+
+        String key = KEY_PREFIX + version + ":" + paramKey;
+        return l1.get(key, k -> {
+            // 페이지와 무효화 번호를 한 번에 읽는다.
+            List<String> values = readL2(k);
+            CachedProductPage page = parse(k, values.get(0));
+            if (page != null) {
+                l2Hits.incrementAndGet();
+                return page;
+            }
+            l2Misses.incrementAndGet();
+            loads.incrementAndGet();
+            page = load(loader);
+            if (values.get(1) != null) {
+                writeL2(k, page, Long.parseLong(values.get(1)));
+            }
+            return page;
+        });
+    }
+
+    // DB에서 불러온 페이지에 ETag를 붙인다. (DB에서 불러올 때 한 번만 계산하고, 캐시에 함께 저장)
+    private CachedProductPage load(Supplier<CachedProductPage> loader) {
+        CachedProductPage page = loader.get();
+        try {
+            page.setEtag("W/\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(page)) + "\"");
+        } catch (JsonProcessingException e) {
+            log.warn("Could not compute product list etag: {}", e.getMessage());
+        }
+        return page;
+    }
+
+    // 상품 등록/삭제 -> 전체 무효화
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        long next = version + 1;
+        try {
+            Long incremented = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+            if (incremented != null) {
+                next = incremented;
+            }
+        } catch (Exception e) {
+            log.warn("Could not bump product list cache version: {}", e.getMessage());
+        }
+        applyVersion(next);
+        publish("all:" + next);
+    }
+
+    // 재고 변경 -> 그 상품이 들어 있는 페이지만 무효화
+    // (Redis 재고 엔진의 DB 반영처럼 트랜잭션 밖에서 발행된 이벤트도 받는다)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        List<Long> productIds = event.getProductIds();
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        evictLocal(productIds);
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(EPOCH_KEY);
+            for (Long id : productIds) {
+                keys.add(REFS_KEY_PREFIX + id);
+                keys.add(EVICTED_KEY_PREFIX + id);
+            }
+            stringRedisTemplate.execute(EVICT_SCRIPT, keys, String.valueOf(l2Ttl));
+        } catch (Exception e) {
+            log.warn("Could not evict product list cache for {}: {}", productIds, e.getMessage());
+        }
+        publish("products:" + productIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 현재 목록 버전 (상품이 등록/삭제될 때마다 모든 서버에서 올라간다)
+     * 목록과 함께 바뀌는 다른 로컬 캐시(검색 결과 개수 등)의 키에 붙이면 다른 서버의 변경도 바로 반영된다.
+     */
+    public long currentVersion() {
+        return version;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", version);
+        stats.put("l1Size", l1.size());
+        stats.put("l1Hits", l1.getHitCount());
+        stats.put("l1Misses", l1.getMissCount());
+        stats.put("l2Hits", l2Hits.get());
+        stats.put("l2Misses", l2Misses.get());
+        stats.put("dbLoads", loads.get());
+        return stats;
+    }
+
+    // [페이지 JSON, 무효화 번호] (한 번도 무효화된 적이 없으면 번호는 "0", Redis에 접근하지 못하면 둘 다 null)
+    private List<String> readL2(String key) {
+        try {
+            List<String> values = stringRedisTemplate.opsForValue().multiGet(List.of(key, EPOCH_KEY));
+            if (values != null && values.size() == 2) {
+                return Arrays.asList(values.get(0), values.get(1) == null ? "0" : values.get(1));
+            }
+        } catch (Exception e) {
+            log.debug("Product list cache read failed for {}: {}", key, e.getMessage());
+        }
+        return Arrays.asList(null, null);
+    }
+
+    private CachedProductPage parse(String key, String json) {
+        try {
+            return json == null ? null : objectMapper.readValue(json, CachedProductPage.class);
+        } catch (Exception e) {
+            log.debug("Product list cache read failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeL2(String key, CachedProductPage page, long epoch) {
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(key);
+            for (ProductResDto dto : page.getContent()) {
+                keys.add(REFS_KEY_PREFIX + dto.getId());
+                keys.add(EVICTED_KEY_PREFIX + dto.getId());
+            }
+            Long stored = stringRedisTemplate.execute(PUT_SCRIPT, keys,
+                    objectMapper.writeValueAsString(page), String.valueOf(l2Ttl), String.valueOf(epoch));
+            if (stored != null && stored == 0) {
+                log.debug("Skipped caching {}: a product on the page changed while loading", key);
+            }
+        } catch (Exception e) {
+            log.debug("Product list cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    // 다른 서버(또는 자기 자신)가 보낸 무효화 알림
+    // all:{버전} -> L1 전체 / products:{id,id...} -> 해당 상품이 들어 있는 L1 페이지
+    private void onInvalidationMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith("all:")) {
+                applyVersion(Long.parseLong(body.substring(4)));
+            } else if (body.startsWith("products:")) {
+                evictLocal(Arrays.stream(body.substring(9).split(","))
+                        .map(Long::valueOf)
+                        .toList());
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Invalid product cache invalidation message: {}", body);
+        }
+    }
+
+    private synchronized void applyVersion(long next) {
+        if (next > version) {
+            version = next;
+        }
+        l1.invalidateAll();
+    }
+
+    private void evictLocal(Collection<Long> productIds) {
+        l1.invalidateIf(page -> productIds.stream().anyMatch(page::containsProduct));
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            log.warn("Could not publish product cache invalidation: {}", e.getMessage());
+        }
+    }
+
+}
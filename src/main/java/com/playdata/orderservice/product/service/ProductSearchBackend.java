@@ -0,0 +1,36 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+
+import java.util.Collection;
+
+// 상품 이름/카테고리 부분 일치 검색 백엔드
+// '%검색어%' LIKE는 인덱스를 못 타서 검색할 때마다 tbl_product 전체를 읽기 때문에,
+// 검색어로 먼저 상품 id를 찾고 목록 조회는 id 조건으로 한다.
+// product.search.backend 설정값에 따라 구현체가 하나만 빈으로 등록된다.
+// - memory (기본값): 서버 메모리에 n-gram 역색인을 만들어서 검색
+// - fulltext: MySQL FULLTEXT 인덱스(ngram parser)로 검색
+public interface ProductSearchBackend {
+
+    enum Field {
+        NAME, CATEGORY
+    }
+
+    /**
+     * 검색어를 포함하는 상품 id 목록
+     *
+     * @return - 일치하는 상품 id. 이 백엔드로 처리할 수 없는 검색어라면 null (-> LIKE 검색으로 대신한다)
+     */
+    Collection<Long> search(Field field, String term);
+
+    /**
+     * 새로 등록된 상품을 색인에 추가 (트랜잭션이 커밋된 뒤에 반영)
+     */
+    void index(Product product);
+
+    /**
+     * 삭제된 상품을 색인에서 제거 (트랜잭션이 커밋된 뒤에 반영)
+     */
+    void remove(Long productId);
+
+}
@@ -1,29 +1,57 @@
 package com.playdata.orderservice.product.service;
 
-import com.playdata.orderservice.common.configs.AwsS3Config;
+import com.playdata.orderservice.common.cache.LocalTtlCache;
+import com.playdata.orderservice.common.storage.StorageService;
+import com.playdata.orderservice.product.dto.CachedProductPage;
+import com.playdata.orderservice.product.dto.ProductChangedEvent;
+import com.playdata.orderservice.product.dto.ProductCursorResDto;
+import com.playdata.orderservice.product.dto.ProductImageUploadEvent;
 import com.playdata.orderservice.product.dto.ProductResDto;
 import com.playdata.orderservice.product.dto.ProductSaveReqDto;
 import com.playdata.orderservice.product.dto.ProductSearchDto;
+import com.playdata.orderservice.product.entity.ImageStatus;
 import com.playdata.orderservice.product.entity.Product;
 import com.playdata.orderservice.product.entity.QProduct;
 import com.playdata.orderservice.product.repository.ProductRepository;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static com.playdata.orderservice.product.entity.QProduct.*;
 
@@ -33,16 +61,49 @@ import static com.playdata.orderservice.product.entity.QProduct.*;
 @Slf4j
 public class ProductService {
 
+    // 저장소 키에 붙여도 되는 확장자
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
     private final ProductRepository productRepository;
     private final JPAQueryFactory factory;
-    private final AwsS3Config s3Config;
+    private final StorageService storageService;
+    private final ProductImageUploader imageUploader;
+    private final ProductSearchBackend searchBackend;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductListCache productListCache;
+
+    // IN 절 하나에 넣을 최대 id 수
+    // 검색 결과가 이보다 많으면 id 목록을 정렬해 두고 페이지에 필요한 만큼씩 잘라서 조회한다.
+    @Value("${product.search.max-in-clause:1000}")
+    private int maxInClause;
+
+    // 목록 조회 시 전체 개수를 구하는 방식
+    // - exact: 매번 count 쿼리 실행
+    // - cached (기본값): 검색 조건별로 개수를 캐시해 두고, 상품 등록/삭제 시 무효화 (목록 캐시 버전을 키에 붙임)
+    // - none: 개수를 구하지 않고 size + 1 개를 조회해서 다음 페이지 존재 여부만 알려준다. (응답이 Slice 형태)
+    public enum CountMode {
+        EXACT, CACHED, NONE
+    }
+
+    @Value("${product.list.count-mode:CACHED}")
+    private CountMode countMode;
+
+    @Value("${product.list.count-cache-ttl-ms:60000}")
+    private long countCacheTtl;
+
+    // 검색 조건(검색 구분 + 검색어) -> 전체 개수
+    private LocalTtlCache<String, Long> countCache;
+
+    @PostConstruct
+    public void initializeCountCache() {
+        countCache = new LocalTtlCache<>(countCacheTtl, 1000);
+    }
 
     public Product productCreate(ProductSaveReqDto dto) throws IOException {
 
         MultipartFile productImage = dto.getProductImage();
 
-        String uniqueFileName
-                = UUID.randomUUID() + "_" + productImage.getOriginalFilename();
+        String uniqueFileName = storageKey(productImage.getOriginalFilename());
 
         /* 로컬 저장 코드
         File file
@@ -54,18 +115,72 @@ public class ProductService {
         }
         */
 
-        // 더 이상 로컬 경로에 이미지를 저장하지 않고, S3 버킷에 저장
-        String imageUrl
-                = s3Config.uploadToS3Bucket(productImage.getBytes(), uniqueFileName);
+        // 더 이상 로컬 경로에 이미지를 저장하지 않고, 저장소(StorageService: S3 또는 로컬 디렉토리)에 저장
+        // 업로드는 트랜잭션이 커밋된 뒤에 별도 스레드에서 진행한다. (ProductImageUploader)
+        // 여기서는 이미지를 임시 파일로 옮겨 두고, 상품은 이미지 업로드 중(PENDING) 상태로 먼저 저장.
+        Path spoolFile = imageUploader.spool(productImage);
+
+        Product saved;
+        try {
+            Product product = dto.toEntity();
+            product.updateImageStatus(ImageStatus.PENDING);
+
+            saved = productRepository.save(product);
+            searchBackend.index(saved);
+            eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+        } catch (RuntimeException e) {
+            // 업로드 이벤트를 발행하기 전이라 롤백 리스너가 임시 파일을 지워 주지 않는다.
+            imageUploader.discard(spoolFile);
+            throw e;
+        }
+        eventPublisher.publishEvent(new ProductImageUploadEvent(
+                saved.getId(), spoolFile, uniqueFileName, productImage.getContentType()));
+
+        return saved;
+
+    }
 
-        Product product = dto.toEntity();
-        product.updateImagePath(imageUrl);  // 파일명이 아닌 S3 오브젝트의 url이 저장될 것이다.
+    // 저장소 키는 "UUID.확장자"로만 만든다.
+    // 원래 파일명에는 공백, #, ?, %, 한글, "../" 등이 들어 있을 수 있어서 그대로 쓰면 url이 깨지거나 경로가 바뀐다.
+    // 확장자도 영문 소문자/숫자 10자 이내일 때만 붙인다.
+    private static String storageKey(String originalFilename) {
+        String key = UUID.randomUUID().toString();
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        if (extension != null && SAFE_EXTENSION.matcher(extension.toLowerCase()).matches()) {
+            key += "." + extension.toLowerCase();
+        }
+        return key;
+    }
 
-        return productRepository.save(product);
+    /**
+     * 상품 목록 (mode=cursor 이면 커서 기반, 아니면 페이지 번호 기반)
+     * 캐시된 페이지를 그대로 리턴하고, 응답 형태(Page / Slice / 커서)는 호출하는 쪽에서 만든다.
+     * 캐시된 페이지에는 내용으로 만든 ETag가 들어 있어서, 내용이 같으면 컨트롤러가 304로 응답할 수 있다.
+     */
+    // 캐시에 있으면 DB 커넥션을 잡지 않도록 트랜잭션 없이 실행 (조회 쿼리는 각자 자동 커밋으로 실행된다)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public CachedProductPage productListPage(ProductSearchDto searchDto, Pageable pageable) {
+        if ("cursor".equals(searchDto.getMode())) {
+            return productListCache.get(listCacheKey(searchDto, pageable),
+                    () -> CachedProductPage.of(loadProductCursorList(searchDto, pageable)));
+        }
+        return productListCache.get(listCacheKey(searchDto, pageable),
+                () -> CachedProductPage.of(loadProductList(searchDto, pageable)));
+    }
 
+    // 목록 캐시 키: 검색 조건 + 페이지 조건
+    private String listCacheKey(ProductSearchDto searchDto, Pageable pageable) {
+        return String.join("|",
+                String.valueOf(searchDto.getCategory()),
+                String.valueOf(searchDto.getSearchName()),
+                String.valueOf(searchDto.getMode()),
+                String.valueOf(searchDto.getCursor()),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                pageable.getSort().toString());
     }
 
-    public Page<ProductResDto> productList(ProductSearchDto searchDto, Pageable pageable) {
+    private Slice<ProductResDto> loadProductList(ProductSearchDto searchDto, Pageable pageable) {
      /*   Page<Product> products = productRepository.findAll(pageable);
 
         // 클라이언트단에 페이징에 필요한 데이터를 제공하기 위해 Page 객체 자체를 넘기려고 한다.
@@ -73,36 +188,37 @@ public class ProductService {
         // map을 통해 Product를 dto로 일괄 변환해서 리턴.
         Page<ProductResDto> productResDtos = products.map(p -> p.fromEntity());
 */
-        BooleanBuilder builder = new BooleanBuilder();
-
-        // 상품 이름 검색 조건
-        if (searchDto.getSearchName() != null) {
-            // 상품 이름 검색 조건
-            if (searchDto.getCategory().equals("name")) {
-                builder.and(product.name.like("%" + searchDto.getSearchName() + "%"));
-                // 상품 카테고리 검색 조건
-            } else if (searchDto.getCategory().equals("category")) {
-                builder.and(product.category.like("%" + searchDto.getSearchName() + "%"));
-            }
+        SearchFilter filter = searchFilter(searchDto);
+        if (filter.broadIds != null) {
+            return loadProductListByIds(filter.broadIds, pageable);
         }
+        BooleanBuilder builder = filter.predicate;
 
         // QueryDSL을 이용한 검색 및 페이징 처리
+        // NONE 모드는 한 개를 더 조회해서 다음 페이지가 있는지 확인한다.
         List<Product> products = factory
                 .selectFrom(product)
                 .where(builder)
                 .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .limit(countMode == CountMode.NONE ? pageable.getPageSize() + 1 : pageable.getPageSize())
                 .fetch();
 
-        // 총 검색 결과수를 구하는 쿼리
-        long total = factory
-                .selectFrom(product)
-                .where(builder)
-                .fetchCount();
+        if (countMode == CountMode.NONE) {
+            boolean hasNext = products.size() > pageable.getPageSize();
+            List<ProductResDto> content = (hasNext ? products.subList(0, pageable.getPageSize()) : products)
+                    .stream().map(Product::fromEntity).toList();
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
 
-        // queryDSL로 조회한 내용을 모두 포함하는 Page 객체 생성
-        Page<Product> productPage
-                = new PageImpl<>(products, pageable, total);
+        // 총 검색 결과수를 구하는 쿼리
+        // 첫 페이지가 다 차지 않았거나 마지막 페이지라면 개수를 이미 알 수 있으므로 count 쿼리를 생략한다.
+        // 목록 버전을 키에 붙여서, 어느 서버에서든 상품이 등록/삭제되면(버전 증가) 예전 개수는 더 이상 읽히지 않게 한다.
+        String countKey = productListCache.currentVersion() + ":"
+                + searchDto.getCategory() + ":" + searchDto.getSearchName();
+        Page<Product> productPage = PageableExecutionUtils.getPage(products, pageable,
+                () -> countMode == CountMode.CACHED
+                        ? countCache.get(countKey, key -> countProducts(builder))
+                        : countProducts(builder));
 
         // 엔터티를 일괄적으로 dto로 변환하기
         Page<ProductResDto> productResDtos
@@ -112,14 +228,271 @@ public class ProductService {
         return productResDtos;
     }
 
+    // 검색 결과가 많을 때(max-in-clause 초과): 색인에서 찾은 id를 정렬해 두고 이번 페이지에 해당하는 id만 잘라서 조회
+    // 전체 개수는 id 수이므로 count 쿼리가 필요 없다.
+    private Slice<ProductResDto> loadProductListByIds(List<Long> ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int limit = countMode == CountMode.NONE ? pageable.getPageSize() + 1 : pageable.getPageSize();
+        List<Long> pageIds = ids.subList(from, Math.min(from + limit, ids.size()));
+
+        List<Product> products = pageIds.isEmpty() ? List.of() : factory
+                .selectFrom(product)
+                .where(product.id.in(pageIds))
+                .orderBy(product.id.asc())
+                .fetch();
+
+        if (countMode == CountMode.NONE) {
+            boolean hasNext = from + limit < ids.size();
+            List<ProductResDto> content = products.stream()
+                    .limit(pageable.getPageSize())
+                    .map(Product::fromEntity)
+                    .toList();
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
+        return new PageImpl<>(products.stream().map(Product::fromEntity).toList(), pageable, ids.size());
+    }
+
+    // fetchCount()는 QueryDSL 5에서 deprecated -> count를 직접 select
+    private Long countProducts(Predicate predicate) {
+        Long total = factory
+                .select(product.count())
+                .from(product)
+                .where(predicate)
+                .fetchOne();
+        return total == null ? 0L : total;
+    }
+
+    /**
+     * 커서 기반 상품 목록 (mode=cursor)
+     * OFFSET 대신 "마지막으로 본 (정렬 값, id) 다음부터" 조건으로 조회하기 때문에,
+     * 5000번째 페이지도 첫 페이지와 같은 비용으로 조회된다. 전체 개수는 구하지 않는다.
+     * 정렬은 Pageable의 첫 번째 정렬 조건 하나만 사용하고, 같은 값끼리는 id로 순서를 정한다. (기본값 id 오름차순)
+     */
+    private ProductCursorResDto loadProductCursorList(ProductSearchDto searchDto, Pageable pageable) {
+        Sort.Order order = pageable.getSort().stream().findFirst()
+                .orElse(Sort.Order.asc("id"));
+        SortKey sortKey = SortKey.of(order.getProperty());
+        boolean ascending = order.isAscending();
+
+        SearchFilter filter = searchFilter(searchDto);
+        BooleanBuilder builder = filter.predicate;
+        if (StringUtils.hasText(searchDto.getCursor())) {
+            ProductCursor cursor = ProductCursor.decode(searchDto.getCursor());
+            if (cursor.sortKey != sortKey || cursor.ascending != ascending) {
+                throw new IllegalArgumentException("정렬 조건이 커서와 다릅니다.");
+            }
+            builder.and(seekCondition(sortKey, ascending, cursor));
+        }
+
+        OrderSpecifier<?>[] orderBy = {
+                ascending ? sortKey.path.asc() : sortKey.path.desc(),
+                ascending ? product.id.asc() : product.id.desc()
+        };
+        int limit = pageable.getPageSize() + 1;
+        if (filter.broadIds != null) {
+            List<Long> candidates = narrowCandidates(filter.broadIds, builder, orderBy, limit);
+            builder.and(candidates.isEmpty() ? Expressions.FALSE.isTrue() : product.id.in(candidates));
+        }
+
+        List<Product> products = factory
+                .selectFrom(product)
+                .where(builder)
+                .orderBy(orderBy)
+                .limit(limit)
+                .fetch();
+
+        boolean hasNext = products.size() > pageable.getPageSize();
+        if (hasNext) {
+            products = products.subList(0, pageable.getPageSize());
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = new ProductCursor(sortKey, ascending, sortKey.read(last), last.getId()).encode();
+        }
+
+        return ProductCursorResDto.builder()
+                .content(products.stream().map(Product::fromEntity).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // (정렬 값, id) 기준으로 커서 다음에 오는 행들만 남기는 조건
+    // MySQL은 오름차순일 때 NULL을 맨 앞에, 내림차순일 때 맨 뒤에 두므로 NULL도 그 순서에 맞춰 처리한다.
+    private Predicate seekCondition(SortKey sortKey, boolean ascending, ProductCursor cursor) {
+        ComparableExpressionBase<?> path = sortKey.path;
+        Object value = cursor.value;
+
+        BooleanExpression afterId = ascending ? product.id.gt(cursor.id) : product.id.lt(cursor.id);
+        if (sortKey == SortKey.ID) {
+            return afterId;
+        }
+
+        if (value == null) {
+            // 오름차순: NULL 중에서 id가 더 큰 행 + NULL이 아닌 모든 행
+            // 내림차순: NULL 중에서 id가 더 작은 행만 (NULL이 맨 마지막)
+            BooleanExpression nullsAfter = path.isNull().and(afterId);
+            return ascending ? nullsAfter.or(path.isNotNull()) : nullsAfter;
+        }
+
+        BooleanExpression beyond = Expressions.booleanTemplate(
+                ascending ? "{0} > {1}" : "{0} < {1}", path, Expressions.constant(value));
+        BooleanExpression tie = Expressions.booleanTemplate("{0} = {1}", path, Expressions.constant(value))
+                .and(afterId);
+        BooleanExpression seek = beyond.or(tie);
+        return ascending ? seek : seek.or(path.isNull());
+    }
+
+    // 검색 결과가 많을 때(커서 모드): id 목록을 max-in-clause 개씩 나눠서 조각마다 이번 페이지 후보(limit개)만 남긴다.
+    // 후보가 IN 절 하나에 들어갈 만큼 줄어들 때까지 반복하고, 최종 정렬은 DB가 한다. (LIKE로 전체를 훑지 않음)
+    private List<Long> narrowCandidates(List<Long> ids, Predicate predicate, OrderSpecifier<?>[] orderBy, int limit) {
+        int chunkSize = Math.max(maxInClause, limit * 2);
+        List<Long> candidates = ids;
+        while (candidates.size() > chunkSize) {
+            List<Long> next = new ArrayList<>();
+            for (int from = 0; from < candidates.size(); from += chunkSize) {
+                next.addAll(factory
+                        .select(product.id)
+                        .from(product)
+                        .where(predicate, product.id.in(
+                                candidates.subList(from, Math.min(from + chunkSize, candidates.size()))))
+                        .orderBy(orderBy)
+                        .limit(limit)
+                        .fetch());
+            }
+            candidates = next;
+        }
+        return candidates;
+    }
+
+    // 상품 이름 / 카테고리 검색 조건
+    private SearchFilter searchFilter(ProductSearchDto searchDto) {
+        SearchFilter filter = new SearchFilter();
+        if (searchDto.getSearchName() != null) {
+            if (searchDto.getCategory().equals("name")) {
+                addSearchCondition(filter, ProductSearchBackend.Field.NAME, product.name, searchDto.getSearchName());
+            } else if (searchDto.getCategory().equals("category")) {
+                addSearchCondition(filter, ProductSearchBackend.Field.CATEGORY, product.category, searchDto.getSearchName());
+            }
+        }
+        return filter;
+    }
+
+    // 검색 조건: predicate에 넣을 조건 + 검색 결과가 너무 많아 IN 절 하나로 넣을 수 없는 경우의 id 목록(오름차순)
+    private static class SearchFilter {
+        private final BooleanBuilder predicate = new BooleanBuilder();
+        private List<Long> broadIds;
+    }
+
+    // 커서 모드에서 정렬할 수 있는 필드 (모두 tbl_product에 인덱스가 있는 컬럼만, Product 엔터티 참고)
+    // 재고(stockQuantity)는 주문마다 바뀌어서 인덱스를 두면 재고 차감이 느려지므로 정렬 필드에서 뺐다.
+    private enum SortKey {
+        ID("id", product.id, Long::valueOf, Product::getId),
+        NAME("name", product.name, value -> value, Product::getName),
+        CATEGORY("category", product.category, value -> value, Product::getCategory),
+        PRICE("price", product.price, Integer::valueOf, Product::getPrice),
+        CREATE_TIME("createTime", product.createTime, LocalDateTime::parse, Product::getCreateTime);
+
+        private final String property;
+        private final ComparableExpressionBase<?> path;
+        private final Function<String, Object> parser;
+        private final Function<Product, Object> getter;
+
+        SortKey(String property, ComparableExpressionBase<?> path,
+                Function<String, Object> parser, Function<Product, Object> getter) {
+            this.property = property;
+            this.path = path;
+            this.parser = parser;
+            this.getter = getter;
+        }
+
+        static SortKey of(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("정렬할 수 없는 필드입니다: " + property);
+        }
+
+        Object read(Product product) {
+            return getter.apply(product);
+        }
+    }
+
+    // 커서 토큰: "정렬필드,방향 / 마지막 id / 마지막 정렬 값"을 줄바꿈으로 이어서 Base64(URL-safe)로 인코딩
+    // 정렬 값은 맨 마지막에 두어서 값 안에 줄바꿈이 있어도 안전하게 나눌 수 있게 했다. (N: NULL, V: 값)
+    private static class ProductCursor {
+        private final SortKey sortKey;
+        private final boolean ascending;
+        private final Object value;
+        private final long id;
+
+        ProductCursor(SortKey sortKey, boolean ascending, Object value, long id) {
+            this.sortKey = sortKey;
+            this.ascending = ascending;
+            this.value = value;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = sortKey.property + "," + (ascending ? "asc" : "desc") + "\n"
+                    + id + "\n"
+                    + (value == null ? "N" : "V" + value);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ProductCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\n", 3);
+                String[] sort = parts[0].split(",");
+                SortKey sortKey = SortKey.of(sort[0]);
+                Object value = parts[2].startsWith("V") ? sortKey.parser.apply(parts[2].substring(1)) : null;
+                return new ProductCursor(sortKey, "asc".equals(sort[1]), value, Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+    }
+
+    // 검색 색인에서 먼저 상품 id를 찾고, 색인으로 처리할 수 없는 경우(너무 짧은 검색어)에만 LIKE 검색
+    private void addSearchCondition(SearchFilter filter, ProductSearchBackend.Field field,
+                                    StringPath column, String term) {
+        Collection<Long> ids = searchBackend.search(field, term);
+        if (ids == null) {
+            filter.predicate.and(column.like("%" + term + "%"));
+        } else if (ids.isEmpty()) {
+            filter.predicate.and(Expressions.FALSE.isTrue());
+        } else if (ids.size() > maxInClause) {
+            filter.broadIds = ids.stream().sorted().toList();
+        } else {
+            filter.predicate.and(product.id.in(ids));
+        }
+    }
+
     public void productDelete(Long id) throws Exception {
         Product product = productRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Product with id " + id + " not found")
         );
 
         String imageUrl = product.getImagePath();  // S3 버킷 내의 오브젝트 Url
-        s3Config.deleteFromS3Bucket(imageUrl);
+        // 이미지 업로드가 아직 끝나지 않았다면 경로가 없다. (업로드가 끝나면 업로더가 지운다)
+        if (imageUrl != null) {
+            storageService.delete(imageUrl);
+        }
+        if (product.getThumbnailPath() != null) {
+            storageService.delete(product.getThumbnailPath());
+        }
+        if (product.getMediumImagePath() != null) {
+            storageService.delete(product.getMediumImagePath());
+        }
         productRepository.deleteById(id);
+        searchBackend.remove(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
     }
 }
 
@@ -0,0 +1,250 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "stock.engine", havingValue = "redis")
+// Redis 카운터로 재고를 차감하는 엔진
+// 주문 시에는 Lua 스크립트 하나로 Redis 재고만 원자적으로 차감하고 (MySQL 행 잠금 없음)
+// 차감량은 pending 해시에 쌓아 두었다가 RedisStockWriteBehindFlusher가 tbl_product에 모아서 반영한다.
+//
+// stock:{상품id}    -> 현재 예약 가능한 재고
+// stock:pending    -> 아직 DB에 반영되지 않은 차감량 (상품id -> 수량)
+// stock:processing -> DB에 반영하는 중인 차감량
+// stock:epoch      -> DB 반영이 시작/종료될 때마다 증가 (DB 재고를 읽어서 적재할 때 끼어들기 감지용)
+public class RedisStockReservationEngine implements StockReservationEngine {
+
+    static final String STOCK_KEY_PREFIX = "stock:";
+    static final String PENDING_KEY = "stock:pending";
+    static final String PROCESSING_KEY = "stock:processing";
+    static final String EPOCH_KEY = "stock:epoch";
+
+    // 모든 상품의 재고를 확인한 뒤에 한꺼번에 차감 (하나라도 부족하면 아무것도 차감하지 않는다)
+    // 리턴: 1 성공, 0 재고 부족, -i Redis에 아직 없는 i번째 상품
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            for i = 1, n do
+              local stock = redis.call('GET', KEYS[i + 1])
+              if not stock then
+                return -i
+              end
+              if tonumber(stock) < tonumber(ARGV[i * 2]) then
+                return 0
+              end
+            end
+            for i = 1, n do
+              redis.call('DECRBY', KEYS[i + 1], ARGV[i * 2])
+              redis.call('HINCRBY', KEYS[1], ARGV[i * 2 - 1], ARGV[i * 2])
+            end
+            return 1
+            """, Long.class);
+
+    // 주문 트랜잭션이 롤백되었을 때 차감했던 재고를 되돌린다.
+    // (이미 DB에 반영되었다면 pending이 음수가 되어 다음 반영 때 DB 재고가 다시 늘어난다)
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #KEYS - 1 do
+              redis.call('INCRBY', KEYS[i + 1], ARGV[i * 2])
+              redis.call('HINCRBY', KEYS[1], ARGV[i * 2 - 1], -tonumber(ARGV[i * 2]))
+            end
+            return 1
+            """, Long.class);
+
+    // DB에서 읽어 온 재고를 Redis에 적재: 재고 = DB 재고 - pending 차감량
+    // DB를 읽는 사이에 반영이 시작/종료되었거나(epoch 변경) 반영 중이면 적재하지 않는다.
+    // KEYS: epoch, pending, processing, 상품별 재고 키... / ARGV: 읽기 전 epoch, 덮어쓰기 여부, (상품id, DB 재고) 쌍...
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            local epoch = redis.call('GET', KEYS[1]) or '0'
+            if epoch ~= ARGV[1] or redis.call('EXISTS', KEYS[3]) == 1 then
+              return 0
+            end
+            for i = 4, #KEYS do
+              local j = (i - 4) * 2 + 3
+              if ARGV[2] == '1' or redis.call('EXISTS', KEYS[i]) == 0 then
+                local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[j]) or '0')
+                redis.call('SET', KEYS[i], tonumber(ARGV[j + 1]) - pending)
+              end
+            end
+            return 1
+            """, Long.class);
+
+    private static final int MAX_LOAD_ATTEMPTS = 5;
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    private final StringRedisTemplate stockRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    // 적재하려는데 DB 반영이 진행 중일 때 처음 기다리는 시간 (시도할 때마다 2배, 최대 MAX_LOAD_ATTEMPTS번)
+    @Value("${stock.redis.load-backoff-ms:20}")
+    private long loadBackoffMillis;
+
+    // 트랜잭션 밖(서버 시작 시 정합성 맞추기)에서 DB 재고를 읽기 위한 템플릿
+    // 주문 트랜잭션 안에서는 새 커넥션을 잡지 않고 잠금 읽기로 최신 값을 읽는다. (readStockQuantities 참고)
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    private void initializeReadTransaction() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void reserve(Map<Long, Product> productMap, Map<Long, Integer> quantityMap) {
+        List<Long> productIds = new ArrayList<>(quantityMap.keySet());
+        List<String> keys = new ArrayList<>();
+        keys.add(PENDING_KEY);
+        String[] args = new String[productIds.size() * 2];
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            keys.add(STOCK_KEY_PREFIX + productId);
+            args[i * 2] = String.valueOf(productId);
+            args[i * 2 + 1] = String.valueOf(quantityMap.get(productId));
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Long result = stockRedisTemplate.execute(RESERVE_SCRIPT, keys, (Object[]) args);
+            if (result == null) {
+                throw new IllegalStateException("재고 예약 스크립트 실행 실패");
+            }
+            if (result == 1) {
+                break;
+            }
+            if (result == 0) {
+                throw new IllegalArgumentException("재고 부족!");
+            }
+            // 아직 Redis에 올라오지 않은 상품 -> DB에서 읽어서 적재한 뒤 다시 시도
+            // DB 반영이 끝나지 않아 적재하지 못했다면 재고 부족이 아니므로 잠시 후 다시 주문하도록 503
+            // 주문에 포함된 상품을 id 순서로 한꺼번에 적재한다. (이미 있는 카운터는 건드리지 않음)
+            if (attempt >= MAX_LOAD_ATTEMPTS
+                    || !loadStocks(productIds.stream().sorted().toList(), false)) {
+                throw new StockTemporarilyUnavailableException("재고를 확인하는 중입니다. 잠시 후 다시 시도해 주세요.");
+            }
+        }
+
+        // 주문 트랜잭션이 롤백되면 Redis에서 빼 둔 재고를 되돌린다.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        stockRedisTemplate.execute(RELEASE_SCRIPT, keys, (Object[]) args);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 모든 상품의 DB 재고로 Redis 재고 카운터를 다시 맞춘다. (서버 시작 시 정합성 맞추기)
+     */
+    public void reconcileAll() {
+        List<Long> productIds = readTransaction.execute(status ->
+                jdbcTemplate.queryForList("SELECT id FROM tbl_product", Long.class));
+        if (productIds == null) {
+            return;
+        }
+
+        for (int from = 0; from < productIds.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + LOAD_CHUNK_SIZE, productIds.size()));
+            if (!loadStocks(chunk, true)) {
+                log.warn("Could not reconcile stock counters for products {}..{}",
+                        chunk.get(0), chunk.get(chunk.size() - 1));
+            }
+        }
+        log.info("Reconciled {} stock counters with tbl_product", productIds.size());
+    }
+
+    /**
+     * DB 재고를 읽어서 Redis 재고 카운터에 적재
+     * 읽는 도중에 DB 반영이 끼어들면 epoch가 바뀌므로 처음부터 다시 읽는다.
+     * 반영이 끝날 때까지 시도할 때마다 대기 시간을 늘려 가며 기다린다. (load-backoff-ms, 2배씩)
+     *
+     * @param productIds - 적재할 상품 id
+     * @param overwrite  - true면 이미 있는 카운터도 덮어쓴다.
+     * @return - 적재 성공 여부
+     */
+    private boolean loadStocks(List<Long> productIds, boolean overwrite) {
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            String epoch = stockRedisTemplate.opsForValue().get(EPOCH_KEY);
+
+            Map<Long, Integer> stocks = readStockQuantities(productIds);
+
+            List<String> keys = new ArrayList<>(List.of(EPOCH_KEY, PENDING_KEY, PROCESSING_KEY));
+            List<String> args = new ArrayList<>(List.of(epoch == null ? "0" : epoch, overwrite ? "1" : "0"));
+            stocks.forEach((productId, stock) -> {
+                keys.add(STOCK_KEY_PREFIX + productId);
+                args.add(String.valueOf(productId));
+                args.add(String.valueOf(stock));
+            });
+
+            Long result = stockRedisTemplate.execute(LOAD_SCRIPT, keys, args.toArray());
+            if (result != null && result == 1) {
+                return true;
+            }
+            log.debug("Stock flush in progress while loading {}, retrying", productIds);
+            if (attempt < MAX_LOAD_ATTEMPTS && !backoff(attempt)) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(loadBackoffMillis << (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 주문 트랜잭션 안에서 호출되면 그 트랜잭션의 커넥션으로 FOR UPDATE 잠금 읽기를 한다.
+    // - 잠금 읽기는 REPEATABLE READ 스냅샷이 아니라 최신 커밋 값을 읽는다.
+    // - REQUIRES_NEW로 커넥션을 하나 더 잡으면, 처음 주문이 커넥션 풀 크기만큼 몰렸을 때
+    //   모든 주문이 두 번째 커넥션을 기다리며 멈춘다.
+    // 잠근 행은 주문 트랜잭션이 끝날 때 풀린다. (그동안 write-behind 반영은 기다린다)
+    private Map<Long, Integer> readStockQuantities(List<Long> productIds) {
+        String placeholders = String.join(",", productIds.stream().map(id -> "?").toList());
+        String sql = "SELECT id, stock_quantity FROM tbl_product WHERE id IN (" + placeholders + ") ORDER BY id";
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return queryStockQuantities(sql + " FOR UPDATE", productIds);
+        }
+        return readTransaction.execute(status -> queryStockQuantities(sql, productIds));
+    }
+
+    private Map<Long, Integer> queryStockQuantities(String sql, List<Long> productIds) {
+        Map<Long, Integer> stocks = new LinkedHashMap<>();
+        jdbcTemplate.query(sql,
+                (RowCallbackHandler) rs -> {
+                    stocks.put(rs.getLong("id"), rs.getInt("stock_quantity"));
+                },
+                productIds.toArray());
+        return stocks;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.dto.ProductStockChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.playdata.orderservice.product.service.RedisStockReservationEngine.*;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "stock.engine", havingValue = "redis")
+// Redis에 쌓인 재고 차감량(stock:pending)을 주기적으로 tbl_product에 모아서 반영 (write-behind)
+// 여러 서버가 떠 있어도 flush-lock을 잡은 서버 하나만 반영한다.
+public class RedisStockWriteBehindFlusher {
+
+    private static final String LOCK_KEY = "stock:flush-lock";
+
+    // pending -> processing 으로 옮기고 epoch 증가 (옮길 게 없으면 0)
+    private static final RedisScript<Long> BEGIN_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            redis.call('INCR', KEYS[3])
+            return 1
+            """, Long.class);
+
+    // DB 반영이 끝난 processing을 지우고 epoch 증가
+    private static final RedisScript<Long> END_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            return 1
+            """, Long.class);
+
+    // 내가 잡은 잠금일 때만 해제
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final String UPDATE_SQL
+            = "UPDATE tbl_product SET stock_quantity = stock_quantity - ? WHERE id = ?";
+
+    private final StringRedisTemplate stockRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisStockReservationEngine reservationEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stock.redis.flush-batch-size:500}")
+    private int batchSize;
+
+    // 서버 시작 시: 남아 있는 차감량을 먼저 반영하고, DB 재고로 Redis 카운터를 다시 맞춘다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        flush();
+        reservationEngine.reconcileAll();
+    }
+
+    @Scheduled(fixedDelayString = "${stock.redis.flush-interval-ms:1000}")
+    public void flush() {
+        String lockValue = UUID.randomUUID().toString();
+        Boolean locked = stockRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, lockValue, Duration.ofSeconds(30));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+
+        try {
+            // 이전 반영이 중간에 실패해서 processing이 남아 있다면 그것부터 다시 반영
+            // (DB 커밋 후 processing 삭제 전에 죽었다면 한 번 더 차감되지만, 초과 판매 방향은 아니다)
+            if (!Boolean.TRUE.equals(stockRedisTemplate.hasKey(PROCESSING_KEY))) {
+                Long begun = stockRedisTemplate.execute(BEGIN_SCRIPT,
+                        List.of(PENDING_KEY, PROCESSING_KEY, EPOCH_KEY));
+                if (begun == null || begun == 0) {
+                    return;
+                }
+            }
+
+            int applied = applyProcessing();
+            stockRedisTemplate.execute(END_SCRIPT, List.of(PROCESSING_KEY, EPOCH_KEY));
+            log.debug("Flushed stock deltas of {} products to tbl_product", applied);
+        } catch (Exception e) {
+            log.error("Stock write-behind flush failed: {}", e.getMessage());
+        } finally {
+            stockRedisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), lockValue);
+        }
+    }
+
+    // processing 해시의 차감량을 배치 UPDATE로 한 트랜잭션에 반영
+    private int applyProcessing() {
+        Map<Object, Object> deltas = stockRedisTemplate.opsForHash().entries(PROCESSING_KEY);
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            long quantity = Long.parseLong((String) delta);
+            if (quantity != 0) {
+                batchArgs.add(new Object[]{quantity, Long.parseLong((String) productId)});
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < batchArgs.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL,
+                        batchArgs.subList(from, Math.min(from + batchSize, batchArgs.size())));
+            }
+        });
+
+        // DB 재고가 바뀐 상품의 목록 캐시 무효화
+        if (!batchArgs.isEmpty()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(
+                    batchArgs.stream().map(args -> (Long) args[1]).toList()));
+        }
+        return batchArgs.size();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.product.entity.Product;
+
+import java.util.Map;
+
+// 주문 시 재고를 예약(차감)하는 엔진
+// stock.engine 설정값에 따라 구현체가 하나만 빈으로 등록된다.
+// - atomic (기본값): 조건부 UPDATE 한 번으로 차감
+// - jpa: 행 잠금 후 더티 체킹으로 차감 (기존 방식)
+// - bucket: 인기 상품의 재고를 여러 개의 버킷 행으로 나눠서 차감
+public interface StockReservationEngine {
+
+    /**
+     * 주문 수량만큼 재고를 차감
+     * 재고가 부족하면 IllegalArgumentException 을 던지고, 주문 트랜잭션은 롤백된다.
+     *
+     * @param productMap  - 주문에 포함된 상품 (상품 id, 상품 엔터티)
+     * @param quantityMap - 상품 id, 차감할 수량
+     */
+    void reserve(Map<Long, Product> productMap, Map<Long, Integer> quantityMap);
+
+}
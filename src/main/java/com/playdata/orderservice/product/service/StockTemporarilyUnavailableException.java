@@ -0,0 +1,11 @@
+package com.playdata.orderservice.product.service;
+
+// 재고를 지금 바로 확인할 수 없을 때 (재고 부족이 아니라 잠시 후 다시 시도하면 되는 상황)
+// 예) Redis 재고 카운터를 적재하려는데 DB 반영(flush)이 계속 진행 중인 경우 -> 503으로 응답
+public class StockTemporarilyUnavailableException extends RuntimeException {
+
+    public StockTemporarilyUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -9,13 +9,12 @@ import com.playdata.orderservice.user.dto.UserResDto;
 import com.playdata.orderservice.user.dto.UserSaveReqDto;
 import com.playdata.orderservice.user.entity.Role;
 import com.playdata.orderservice.user.entity.User;
+import com.playdata.orderservice.user.service.RefreshTokenStore;
 import com.playdata.orderservice.user.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,7 +24,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/user")
@@ -35,9 +33,7 @@ public class UserController {
 
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
-
-    @Qualifier("user-template") // RedisTemplate이 여러 개 빈 등록되었을 경우 명시한다.
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RefreshTokenStore refreshTokenStore;
 
     @PostMapping("/create")
     public ResponseEntity<?> userCreate(@Valid @RequestBody UserSaveReqDto dto) {
@@ -57,22 +53,18 @@ public class UserController {
         // 회원 정보가 일치한다면, JWT를 클라이언트에게 발급해 주어야 한다. -> 로그인 유지를 위해!
         // Access Token을 생성해서 발급해 주겠다. -> 수명이 짧습니다.
         String token
-                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
-        log.info("token: {}", token);
+                = jwtTokenProvider.createToken(user.getId(), user.getEmail(), user.getRole().toString());
 
         // Refresh Token을 생성해 주겠다.
         // Access Token의 수명이 만료되었을 경우 Refresh Token을 확인해서 리프레시가 유효한 경우
         // 로그인 없이 Access Token을 재발급 해주는 용도로 사용.
-        String refreshToken
-                = jwtTokenProvider.createRefreshToken(user.getEmail(), user.getRole().toString());
-
-        // refresh Token을 DB에 저장하자. -> redis에 저장.
-        redisTemplate.opsForValue().set(user.getEmail(), refreshToken, 240, TimeUnit.HOURS);
-
+        // 로그인할 때마다 새 family(기기)로 redis에 저장된다. (RefreshTokenStore 참고)
+        String refreshToken = refreshTokenStore.issue(user.getId(), user.getEmail(), user.getRole());
 
         // 생성된 토큰 외에 추가로 전달할 정보가 있다면 Map을 사용하는 것이 좋습니다.
         Map<String, Object> logInfo = new HashMap<>();
         logInfo.put("token", token);
+        logInfo.put("refreshToken", refreshToken);
         logInfo.put("id", user.getId());
 
         CommonResDto resDto
@@ -108,29 +100,29 @@ public class UserController {
     }
 
     // access token이 만료되어 새 토큰을 요청
+    // 요청: {"refreshToken": "..."} -> 새 access token과 새 refresh token을 발급 (refresh token은 한 번만 사용 가능)
+    // redis에 저장된 정보와 회원 캐시로 access token을 만든다. (캐시에 없을 때만 DB 조회)
     @PostMapping("/refresh")
-    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> id) {
-        log.info("/user/refresh: POST, id: {}", id);
-            User user = userService.findById(Long.parseLong(id.get("id")));
-        log.info("조회된 User: {}", user);
-
-        // email로 redis를 조회해서 refresh token을 가져오자
-        Object obj = redisTemplate.opsForValue().get(user.getEmail());
-        log.info("레디스에서 조회한 데이터: {}", obj);
-        if (obj == null) { // refresh token의 수명이 다됨.
-            log.info("refresh 만료!");
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> body) {
+        RefreshTokenStore.Rotation rotation;
+        try {
+            rotation = userService.refresh(body.get("refreshToken"));
+        } catch (RefreshTokenStore.InvalidRefreshTokenException e) {
+            // refresh token의 수명이 다했거나, 이미 사용된 토큰 -> 다시 로그인해야 함
+            log.info("refresh 실패: {}", e.getMessage());
             return new ResponseEntity<>(new CommonErrorDto(
                     HttpStatus.UNAUTHORIZED,
-                    "EXPIRED_RT"
+                    e.getMessage()
             ), HttpStatus.UNAUTHORIZED);
         }
 
         // 새로운 access token을 발급하자.
         String newAccessToken
-                = jwtTokenProvider.createToken(user.getEmail(), user.getRole().toString());
+                = jwtTokenProvider.createToken(rotation.getUserId(), rotation.getEmail(), rotation.getRole().toString());
 
         Map<String, Object> info = new HashMap<>();
         info.put("token", newAccessToken);
+        info.put("refreshToken", rotation.getRefreshToken());
         CommonResDto resDto
                 = new CommonResDto(HttpStatus.OK, "새 토큰 발급됨!", info);
 
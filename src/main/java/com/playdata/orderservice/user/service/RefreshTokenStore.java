@@ -0,0 +1,227 @@
+package com.playdata.orderservice.user.service;
+
+import com.playdata.orderservice.user.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+// Refresh Token 저장소 (Redis)
+//
+// - 토큰 형식: {유저 id}.{family id}.{비밀 값}  (서명 없는 랜덤 토큰, 비밀 값은 Redis에 해시로만 저장)
+// - 로그인할 때마다 새 family(기기/브라우저 하나)가 만들어지고, 유저당 최근 max-families개까지 유지
+// - Redis 키: rt:{유저 id} (Hash) / field: family id
+//   value: "비밀 값 해시|직전 비밀 값 해시|직전 값 허용 시각(ms)|이메일|권한|만료 시각(ms)"
+// - 재발급(rotation): 토큰은 한 번만 쓸 수 있고, 쓸 때마다 같은 family 안에서 새 토큰으로 바뀐다.
+//   새 비밀 값은 HMAC(서버 키, 이전 비밀 값)으로 만들어서, 같은 토큰으로 다시 요청하면 같은 새 토큰이 나온다.
+// - 동시 요청: 탭 여러 개가 같은 토큰으로 동시에 재발급을 요청할 수 있으므로,
+//   바로 직전 토큰은 reuse-grace 동안 한 번 더 받아 주고 이미 발급한 새 토큰을 그대로 돌려준다.
+// - 재사용 감지: 그보다 예전 토큰이나 허용 시간이 지난 직전 토큰이 들어오면 탈취된 것으로 보고 그 family를 통째로 폐기한다.
+// 검증과 교체는 Lua 스크립트 하나로 처리하므로 저장소 안에서는 Redis 왕복 1번.
+// 다만 토큰에 저장된 권한은 로그인할 때의 값이라, UserService.refresh가 교체한 뒤 현재 회원/권한을
+// UserIdentityCache에서 다시 확인한다. (캐시에 없으면 DB 조회 1번)
+public class RefreshTokenStore {
+
+    private static final String KEY_PREFIX = "rt:";
+
+    // 새 family 저장. 유저의 family가 너무 많으면 만료가 가장 빠른 것부터 지운다.
+    // KEYS: rt:{id} / ARGV: family, value, 만료 시각, 현재 시각, 최대 family 수
+    private static final RedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            local now = tonumber(ARGV[4])
+            local max = tonumber(ARGV[5])
+            local entries = redis.call('HGETALL', KEYS[1])
+            local alive = {}
+            local latest = tonumber(ARGV[3])
+            for i = 1, #entries, 2 do
+              local expires = tonumber(string.match(entries[i + 1], '([^|]+)$'))
+              if expires <= now then
+                redis.call('HDEL', KEYS[1], entries[i])
+              else
+                table.insert(alive, {entries[i], expires})
+                if expires > latest then latest = expires end
+              end
+            end
+            if #alive > max then
+              table.sort(alive, function(a, b) return a[2] < b[2] end)
+              for i = 1, #alive - max do
+                redis.call('HDEL', KEYS[1], alive[i][1])
+              end
+            end
+            redis.call('PEXPIREAT', KEYS[1], latest)
+            return 1
+            """, Long.class);
+
+    // 토큰 확인 + 교체
+    // KEYS: rt:{id} / ARGV: family, 제시된 비밀 값 해시, 새 비밀 값 해시, 현재 시각, 직전 값 허용 시간(ms)
+    // 리턴: {1, 이메일, 권한} 성공 / {0} 없거나 만료 / {-1} 재사용 감지 (family 폐기)
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local value = redis.call('HGET', KEYS[1], ARGV[1])
+            if not value then
+              return {0}
+            end
+            local hash, previous, graceUntil, email, role, expires =
+              string.match(value, '^([^|]*)|([^|]*)|([^|]*)|(.*)|([^|]*)|([^|]*)$')
+            local now = tonumber(ARGV[4])
+            if tonumber(expires) <= now then
+              redis.call('HDEL', KEYS[1], ARGV[1])
+              return {0}
+            end
+            if hash == ARGV[2] then
+              redis.call('HSET', KEYS[1], ARGV[1], ARGV[3] .. '|' .. hash .. '|' .. (now + tonumber(ARGV[5]))
+                .. '|' .. email .. '|' .. role .. '|' .. expires)
+              return {1, email, role}
+            end
+            if previous == ARGV[2] and hash == ARGV[3] and now < tonumber(graceUntil) then
+              return {1, email, role}
+            end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            return {-1}
+            """, List.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // refresh token 수명 (분). 재발급해도 로그인한 시점부터 이 시간이 지나면 다시 로그인해야 한다.
+    @Value("${jwt.expirationRt}")
+    private int expirationRt;
+
+    // 유저 한 명이 동시에 로그인 상태를 유지할 수 있는 기기 수
+    @Value("${jwt.refresh.max-families:10}")
+    private int maxFamilies;
+
+    // 직전 토큰을 한 번 더 받아 주는 시간 (동시에 들어온 재발급 요청용)
+    @Value("${jwt.refresh.reuse-grace-ms:10000}")
+    private long reuseGrace;
+
+    // 새 비밀 값을 만드는 HMAC 키
+    @Value("${jwt.refresh.secret:${jwt.secretKey}}")
+    private String secretKey;
+
+    /**
+     * 로그인 -> 새 family를 만들고 refresh token 발급
+     */
+    public String issue(Long userId, String email, Role role) {
+        String family = randomString(12);
+        String secret = randomString(32);
+        long now = System.currentTimeMillis();
+        long expiresAt = now + expirationRt * 60 * 1000L;
+
+        stringRedisTemplate.execute(ISSUE_SCRIPT, List.of(KEY_PREFIX + userId),
+                family,
+                hash(secret) + "||0|" + email + "|" + role + "|" + expiresAt,
+                String.valueOf(expiresAt),
+                String.valueOf(now),
+                String.valueOf(maxFamilies));
+
+        return userId + "." + family + "." + secret;
+    }
+
+    /**
+     * refresh token을 확인하고 같은 family의 새 토큰으로 교체
+     *
+     * @return - 새 토큰과 토큰 주인 정보
+     * @throws IllegalArgumentException - 형식이 잘못된 토큰
+     * @throws InvalidRefreshTokenException - 만료되었거나 이미 사용된 토큰
+     */
+    public Rotation rotate(String refreshToken) {
+        String[] parts = refreshToken == null ? new String[0] : refreshToken.split("\\.");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("잘못된 refresh token 입니다.");
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 refresh token 입니다.");
+        }
+        String family = parts[1];
+        String secret = successor(parts[2]);
+
+        List<?> result = stringRedisTemplate.execute(ROTATE_SCRIPT, List.of(KEY_PREFIX + userId),
+                family, hash(parts[2]), hash(secret), String.valueOf(System.currentTimeMillis()),
+                String.valueOf(reuseGrace));
+
+        long status = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        if (status == -1) {
+            log.warn("Refresh token reuse detected for user {}, family {} revoked", userId, family);
+            throw new InvalidRefreshTokenException("REVOKED_RT");
+        }
+        if (status != 1) {
+            throw new InvalidRefreshTokenException("EXPIRED_RT");
+        }
+
+        return new Rotation(userId + "." + family + "." + secret,
+                userId, (String) result.get(1), Role.valueOf((String) result.get(2)));
+    }
+
+    /**
+     * 유저의 모든 refresh token 폐기 (모든 기기에서 로그아웃)
+     */
+    public void revokeAll(Long userId) {
+        stringRedisTemplate.delete(KEY_PREFIX + userId);
+    }
+
+    private String randomString(int bytes) {
+        byte[] buffer = new byte[bytes];
+        RANDOM.nextBytes(buffer);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+    }
+
+    // 같은 비밀 값에서는 항상 같은 새 비밀 값이 나온다. (서버 키를 모르면 다음 값을 알 수 없다)
+    private String successor(String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] next = mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(next);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final String refreshToken;
+        private final Long userId;
+        private final String email;
+        private final Role role;
+    }
+
+    // 만료되었거나 재사용된 refresh token (401로 응답)
+    public static class InvalidRefreshTokenException extends RuntimeException {
+        public InvalidRefreshTokenException(String message) {
+            super(message);
+        }
+    }
+
+}
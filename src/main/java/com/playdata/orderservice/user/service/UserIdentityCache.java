@@ -0,0 +1,75 @@
+package com.playdata.orderservice.user.service;
+
+import com.playdata.orderservice.common.auth.TokenUserInfo;
+import com.playdata.orderservice.common.cache.LocalTtlCache;
+import com.playdata.orderservice.user.entity.Role;
+import com.playdata.orderservice.user.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+// 이메일 -> 회원 id/권한 캐시
+// 주문, 내 정보 조회처럼 토큰의 이메일을 회원 id로 바꾸기만 하면 되는 곳에서 매번 회원을 SELECT 하지 않도록 한다.
+// 새로 발급된 토큰에는 회원 id(uid 클레임)가 들어 있어서 캐시도 거치지 않고,
+// uid가 없는 예전 토큰만 캐시(없으면 DB)에서 찾는다.
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${user.identity-cache.ttl-ms:300000}")
+    private long ttl;
+
+    @Value("${user.identity-cache.max-size:10000}")
+    private int maxSize;
+
+    private LocalTtlCache<String, UserIdentity> cache;
+
+    @PostConstruct
+    public void initialize() {
+        cache = new LocalTtlCache<>(ttl, maxSize);
+    }
+
+    /**
+     * 토큰 정보로 회원 id를 찾는다.
+     *
+     * @throws EntityNotFoundException - 해당 이메일의 회원이 없는 경우
+     */
+    public Long resolveUserId(TokenUserInfo userInfo) {
+        if (userInfo.getId() != null) {
+            return userInfo.getId();
+        }
+        return find(userInfo.getEmail()).getId();
+    }
+
+    public UserIdentity find(String email) {
+        UserIdentity identity = cache.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> new UserIdentity(user.getId(), user.getRole()))
+                .orElse(null));
+        if (identity == null) {
+            throw new EntityNotFoundException("User not found");
+        }
+        return identity;
+    }
+
+    // 회원이 새로 만들어지거나 바뀌었을 때 이전 값을 버린다.
+    // 권한 변경이나 회원 삭제 코드를 추가할 때도 반드시 호출해야 한다.
+    // 호출하지 않으면 재발급(UserService.refresh)이 최대 ttl-ms 동안 이전 권한으로 토큰을 내주거나
+    // 삭제된 회원의 토큰을 폐기하지 않는다. (ttl-ms가 변경이 반영되는 최대 지연 시간)
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class UserIdentity {
+        private final Long id;
+        private final Role role;
+    }
+
+}
@@ -27,12 +27,15 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder encoder;
+    private final UserIdentityCache identityCache;
+    private final RefreshTokenStore refreshTokenStore;
 
     public User userCreate(UserSaveReqDto dto) {
         if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
             throw new IllegalArgumentException("이미 존재하는 이메일 입니다!");
         }
         User saved = userRepository.save(dto.toEntity(encoder));
+        identityCache.invalidate(saved.getEmail());
         log.info("saved: {}", saved);
         return saved;
     }
@@ -51,13 +54,43 @@ public class UserService {
         return user;
     }
 
+    /**
+     * refresh token으로 재발급
+     * refresh token에 저장된 권한은 로그인할 때의 값이므로, 현재 권한은 회원 캐시(없으면 DB)에서 다시 확인한다.
+     * 그 사이에 회원이 삭제되었다면 그 회원의 refresh token을 모두 폐기한다.
+     * (캐시를 거치므로 권한 변경/삭제는 identityCache.invalidate를 호출하지 않으면 user.identity-cache.ttl-ms 뒤에 반영된다)
+     *
+     * @throws RefreshTokenStore.InvalidRefreshTokenException - 만료, 재사용, 또는 회원이 없어진 경우
+     */
+    // 캐시에 있으면 DB 커넥션을 잡지 않도록 트랜잭션 없이 실행
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public RefreshTokenStore.Rotation refresh(String refreshToken) {
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken);
+
+        UserIdentityCache.UserIdentity identity;
+        try {
+            identity = identityCache.find(rotation.getEmail());
+        } catch (EntityNotFoundException e) {
+            identity = null;
+        }
+        if (identity == null || !identity.getId().equals(rotation.getUserId())) {
+            log.info("User {} no longer exists, revoking refresh tokens", rotation.getUserId());
+            refreshTokenStore.revokeAll(rotation.getUserId());
+            throw new RefreshTokenStore.InvalidRefreshTokenException("REVOKED_RT");
+        }
+
+        return new RefreshTokenStore.Rotation(rotation.getRefreshToken(),
+                rotation.getUserId(), rotation.getEmail(), identity.getRole());
+    }
+
     public UserResDto myinfo() {
         TokenUserInfo userInfo
                 // 필터에서 세팅한 토큰 정보를 불러오는 메서드 (SecurityContextHolder)
                 = (TokenUserInfo) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
 
-        User user = userRepository.findByEmail(userInfo.getEmail()).orElseThrow(
+        // 이메일 대신 PK로 조회 (회원 id는 토큰 또는 캐시에서 얻는다)
+        User user = userRepository.findById(identityCache.resolveUserId(userInfo)).orElseThrow(
                 () -> new EntityNotFoundException("User not found")
         );
 
@@ -0,0 +1,37 @@
+package com.playdata.orderservice.common;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Hibernate가 실행하는 SQL을 모아 두는 StatementInspector (테스트 전용)
+// src/test/resources/application.yml 의 hibernate.session_factory.statement_inspector 로 등록되어 있다.
+// 쿼리 수가 데이터 양에 따라 늘어나지 않는지(N+1), 특정 테이블 조회가 빠졌는지 확인할 때 사용한다.
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    // 해당 테이블을 조회(SELECT)한 SQL 수
+    public static long selectCount(String table) {
+        return STATEMENTS.stream()
+                .map(String::toLowerCase)
+                .filter(sql -> sql.startsWith("select") && sql.contains(" " + table + " "))
+                .count();
+    }
+
+}
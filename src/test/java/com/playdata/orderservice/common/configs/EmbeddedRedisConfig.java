@@ -0,0 +1,44 @@
+package com.playdata.orderservice.common.configs;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+
+// 테스트 실행 시 로컬에 Redis 서버가 없어도 되도록 내장 Redis를 띄워 주는 설정
+// 테스트 클래스에서 @Import(EmbeddedRedisConfig.class) 로 사용한다.
+// 설정이 다른 테스트 컨텍스트가 여러 개 떠도 같은 포트를 쓰므로 서버는 JVM당 한 번만 띄우고,
+// 테스트 JVM이 끝날 때 내린다.
+@TestConfiguration
+@Slf4j
+public class EmbeddedRedisConfig {
+
+    private static RedisServer redisServer;
+
+    @Value("${spring.data.redis.port}")
+    private int port;
+
+    @PostConstruct
+    public void startRedis() throws IOException {
+        synchronized (EmbeddedRedisConfig.class) {
+            if (redisServer != null) {
+                return;
+            }
+            RedisServer server = new RedisServer(port);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.stop();
+                } catch (IOException e) {
+                    log.warn("Embedded redis stop failed: {}", e.getMessage());
+                }
+            }));
+            redisServer = server;
+            log.info("Embedded redis started on port {}", port);
+        }
+    }
+
+}
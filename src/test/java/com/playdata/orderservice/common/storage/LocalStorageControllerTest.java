@@ -0,0 +1,137 @@
+package com.playdata.orderservice.common.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class LocalStorageControllerTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    private Path tempDir;
+
+    private LocalStorageService storageService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storageService = new LocalStorageService();
+        ReflectionTestUtils.setField(storageService, "dir", tempDir.resolve("storage").toString());
+        ReflectionTestUtils.setField(storageService, "baseUrl", "http://localhost/images/");
+        storageService.initialize();
+
+        Path source = Files.writeString(tempDir.resolve("source.txt"), CONTENT);
+        storageService.upload(source, "sample.txt", "text/plain");
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new LocalStorageController(storageService)).build();
+    }
+
+    private MockHttpServletResponse perform(String uri, String... headers) throws Exception {
+        var request = get(URI.create(uri));
+        for (int i = 0; i < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private String etag() throws Exception {
+        String etag = perform("/images/sample.txt").getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    @Test
+    @DisplayName("Range 요청은 206과 해당 구간만 보낸다")
+    void range() throws Exception {
+        MockHttpServletResponse full = perform("/images/sample.txt");
+        assertEquals(200, full.getStatus());
+        assertEquals("bytes", full.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(CONTENT, full.getContentAsString());
+
+        MockHttpServletResponse partial = perform("/images/sample.txt", HttpHeaders.RANGE, "bytes=2-5");
+        assertEquals(206, partial.getStatus());
+        assertEquals("bytes 2-5/10", partial.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", partial.getContentAsString());
+
+        MockHttpServletResponse suffix = perform("/images/sample.txt", HttpHeaders.RANGE, "bytes=-3");
+        assertEquals(206, suffix.getStatus());
+        assertEquals("789", suffix.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("If-Range가 현재 ETag와 같을 때만 구간을, 다르면 전체를 보낸다")
+    void ifRange() throws Exception {
+        String etag = etag();
+
+        MockHttpServletResponse matched = perform("/images/sample.txt",
+                HttpHeaders.RANGE, "bytes=0-1", HttpHeaders.IF_RANGE, etag);
+        assertEquals(206, matched.getStatus());
+        assertEquals("01", matched.getContentAsString());
+
+        MockHttpServletResponse changed = perform("/images/sample.txt",
+                HttpHeaders.RANGE, "bytes=0-1", HttpHeaders.IF_RANGE, "\"stale\"");
+        assertEquals(200, changed.getStatus());
+        assertEquals(CONTENT, changed.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("파일 크기를 벗어난 구간은 416과 전체 크기를 알려 준다")
+    void unsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = perform("/images/sample.txt", HttpHeaders.RANGE, "bytes=100-200");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("ETag가 같으면 304로 본문 없이 응답한다")
+    void notModified() throws Exception {
+        MockHttpServletResponse response = perform("/images/sample.txt", HttpHeaders.IF_NONE_MATCH, etag());
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("저장소 밖의 경로와 쓰는 중인 임시 파일은 내려주지 않는다")
+    void traversal() throws Exception {
+        assertEquals(404, perform("/images/..%2Fsecret.txt").getStatus());
+        assertEquals(404, perform("/images/../secret.txt").getStatus());
+
+        Files.writeString(tempDir.resolve("storage").resolve(".upload-partial.tmp"), "partial");
+        assertEquals(404, perform("/images/.upload-partial.tmp").getStatus());
+        assertEquals(404, perform("/images/missing.txt").getStatus());
+    }
+
+    @Test
+    @DisplayName("공백, #, ?, %가 들어간 키도 인코딩된 url로 내려받고 삭제할 수 있다")
+    void encodedUrl() throws Exception {
+        Path source = Files.writeString(tempDir.resolve("special.txt"), CONTENT);
+        String url = storageService.upload(source, "my photo #1?100%.txt", "text/plain");
+
+        assertEquals("http://localhost/images/my%20photo%20%231%3F100%25.txt", url);
+        MockHttpServletResponse response = perform(url.substring("http://localhost".length()));
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+
+        storageService.delete(url);
+        assertEquals(404, perform(url.substring("http://localhost".length())).getStatus());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.playdata.orderservice.common.storage;
+
+import com.playdata.orderservice.common.configs.AwsS3Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MinIO(S3 호환 저장소)에 실제로 업로드/다운로드/삭제해 보는 통합 테스트
+// local 프로필에서만 실행한다.
+//   docker compose --profile local up -d minio
+//   SPRING_PROFILES_ACTIVE=local ./gradlew test --tests '*S3StorageServiceTest'
+// 접속 정보는 환경 변수 S3_ENDPOINT, S3_ACCESS_KEY, S3_SECRET_KEY, S3_BUCKET 으로 바꿀 수 있다. (기본값은 docker-compose.yml의 MinIO)
+@EnabledIfEnvironmentVariable(named = "SPRING_PROFILES_ACTIVE", matches = ".*\\blocal\\b.*")
+class S3StorageServiceTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private S3Client s3Client;
+    private S3StorageService storageService;
+    private String bucket;
+
+    @BeforeEach
+    void setUp() {
+        AwsS3Config config = new AwsS3Config();
+        ReflectionTestUtils.setField(config, "accessKey", env("S3_ACCESS_KEY", "minioadmin"));
+        ReflectionTestUtils.setField(config, "secretKey", env("S3_SECRET_KEY", "minioadmin"));
+        ReflectionTestUtils.setField(config, "region", "ap-northeast-2");
+        ReflectionTestUtils.setField(config, "endpoint", env("S3_ENDPOINT", "http://localhost:9000"));
+        ReflectionTestUtils.setField(config, "pathStyleAccess", true);
+        s3Client = config.s3Client();
+
+        bucket = env("S3_BUCKET", "orderservice-test");
+        try {
+            s3Client.headBucket(b -> b.bucket(bucket));
+        } catch (NoSuchBucketException e) {
+            s3Client.createBucket(b -> b.bucket(bucket));
+        }
+
+        storageService = new S3StorageService(s3Client);
+        ReflectionTestUtils.setField(storageService, "bucketName", bucket);
+        ReflectionTestUtils.setField(storageService, "pathStyleAccess", true);
+        ReflectionTestUtils.setField(storageService, "multipartThreshold", 6L * MB);
+        ReflectionTestUtils.setField(storageService, "partSize", 5L * MB);
+        ReflectionTestUtils.setField(storageService, "parallelism", 3);
+        storageService.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+        s3Client.close();
+    }
+
+    @Test
+    @DisplayName("임계값보다 큰 파일은 조각으로 나눠 올리고, 내려받은 내용이 원본과 같다")
+    void multipartUpload() throws Exception {
+        // 5MB 조각 2개 + 3MB 마지막 조각
+        Path file = randomFile(13 * MB);
+        String key = "it/" + UUID.randomUUID() + "_large.bin";
+
+        String url = storageService.upload(file, key, "application/octet-stream");
+
+        assertTrue(url.contains("/" + bucket + "/"), "path-style URL: " + url);
+        try (ResponseInputStream<GetObjectResponse> object = s3Client.getObject(b -> b.bucket(bucket).key(key))) {
+            assertEquals(Files.size(file), object.response().contentLength());
+            // multipart로 올린 오브젝트의 ETag는 "{md5}-{조각 수}" 형식
+            assertTrue(object.response().eTag().endsWith("-3\""), "ETag: " + object.response().eTag());
+            assertArrayEquals(sha256(Files.newInputStream(file)), sha256(object));
+        }
+
+        storageService.delete(url);
+        assertThrows(NoSuchKeyException.class, () -> s3Client.headObject(b -> b.bucket(bucket).key(key)));
+    }
+
+    @Test
+    @DisplayName("임계값 이하의 파일은 한 번에 올린다")
+    void singleUpload() throws Exception {
+        Path file = randomFile(MB);
+        String key = "it/" + UUID.randomUUID() + "_small.bin";
+
+        String url = storageService.upload(file, key, "image/png");
+
+        try (ResponseInputStream<GetObjectResponse> object = s3Client.getObject(b -> b.bucket(bucket).key(key))) {
+            assertEquals("image/png", object.response().contentType());
+            assertFalse(object.response().eTag().contains("-"));
+            assertArrayEquals(sha256(Files.newInputStream(file)), sha256(object));
+        }
+        storageService.delete(url);
+    }
+
+    private Path randomFile(int size) throws IOException {
+        Path file = tempDir.resolve(UUID.randomUUID() + ".bin");
+        Random random = new Random(size);
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, Math.min(buffer.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    private byte[] sha256(InputStream in) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (in) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+}
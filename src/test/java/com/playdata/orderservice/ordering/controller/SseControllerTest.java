@@ -0,0 +1,92 @@
+package com.playdata.orderservice.ordering.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.orderservice.common.auth.TokenUserInfo;
+import com.playdata.orderservice.ordering.service.SseReplayBuffer;
+import com.playdata.orderservice.ordering.service.SseSubscriptionRegistry;
+import com.playdata.orderservice.user.entity.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseControllerTest {
+
+    private SseSubscriptionRegistry registry;
+    private SseController sseController;
+
+    @BeforeEach
+    void setUp() {
+        SseReplayBuffer replayBuffer = new SseReplayBuffer(null, new ObjectMapper());
+        replayBuffer.initialize();
+        registry = new SseSubscriptionRegistry();
+        sseController = new SseController(registry, replayBuffer);
+        sseController.startHeartbeat();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sseController.stopHeartbeat();
+    }
+
+    @Test
+    @DisplayName("구독과 해제를 만 번 반복해도 스레드 수가 늘어나지 않고, 해제된 구독은 모두 정리된다")
+    void subscribeSoak() {
+        // 첫 구독으로 초기화가 필요한 것들을 미리 만들어 둔다.
+        connect(sseController.subscribe(userInfo("warmup@test.com"), null, null)).complete();
+        int before = Thread.activeCount();
+
+        for (int i = 0; i < 10_000; i++) {
+            // 같은 사용자가 끊고 다시 연결하는 경우와 새 사용자가 연결하는 경우를 섞는다.
+            String email = (i % 2 == 0) ? "admin@admin.com" : "user" + i + "@test.com";
+            SseEmitter emitter = connect(sseController.subscribe(userInfo(email), null, null));
+            emitter.complete();
+        }
+
+        int after = Thread.activeCount();
+        assertTrue(after <= before, "구독마다 스레드가 새로 생기면 안 됩니다.");
+        assertEquals(0, registry.size(), "연결이 끝난 구독은 레지스트리에서 빠져야 합니다.");
+    }
+
+    private TokenUserInfo userInfo(String email) {
+        return TokenUserInfo.builder()
+                .email(email)
+                .role(Role.ADMIN)
+                .build();
+    }
+
+    // 실제 요청에서는 Spring MVC가 SseEmitter를 응답에 연결(initialize)해 주고,
+    // 그래야 complete() 했을 때 onCompletion 콜백이 실행된다.
+    // 테스트에서는 응답 대신 완료 콜백만 바로 실행하는 핸들러를 연결한다.
+    private SseEmitter connect(SseEmitter emitter) {
+        Class<?> handlerType = Arrays.stream(ResponseBodyEmitter.class.getDeclaredClasses())
+                .filter(type -> type.getSimpleName().equals("Handler"))
+                .findFirst()
+                .orElseThrow();
+        Runnable[] completion = new Runnable[1];
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "onCompletion" -> completion[0] = (Runnable) args[0];
+                        case "complete", "completeWithError" -> {
+                            if (completion[0] != null) {
+                                completion[0].run();
+                            }
+                        }
+                        default -> { }
+                    }
+                    return null;
+                });
+        ReflectionTestUtils.invokeMethod(emitter, "initialize", handler);
+        return emitter;
+    }
+
+}
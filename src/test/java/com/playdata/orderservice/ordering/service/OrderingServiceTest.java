@@ -0,0 +1,102 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.playdata.orderservice.common.SqlStatementRecorder;
+import com.playdata.orderservice.common.auth.TokenUserInfo;
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.repository.ProductRepository;
+import com.playdata.orderservice.user.entity.Role;
+import com.playdata.orderservice.user.entity.User;
+import com.playdata.orderservice.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedisConfig.class)
+class OrderingServiceTest {
+
+    @Autowired
+    private OrderingService orderingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private TokenUserInfo userInfo;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("주문자")
+                .email(UUID.randomUUID() + "@test.com")
+                .password("password")
+                .build());
+        product = productRepository.save(Product.builder()
+                .name("상품")
+                .category("음식")
+                .price(1000)
+                .stockQuantity(100)
+                .build());
+        userInfo = new TokenUserInfo(user.getId(), user.getEmail(), Role.USER);
+    }
+
+    @Test
+    @DisplayName("토큰에 유저 id가 있으면 주문 생성 중 회원 테이블을 조회하지 않는다")
+    void createOrderingWithoutUserSelect() {
+        SqlStatementRecorder.clear();
+
+        orderingService.createOrdering(
+                List.of(new OrderingSaveReqDto(product.getId(), 2)), userInfo);
+
+        assertEquals(0, SqlStatementRecorder.selectCount("tbl_user"),
+                () -> "tbl_user SELECT 발생: " + SqlStatementRecorder.statements());
+    }
+
+    @Test
+    @DisplayName("내 주문 목록 조회의 쿼리 수는 주문 수가 늘어나도 그대로다")
+    void myOrdersQueryCountIsConstant() {
+        Product other = productRepository.save(Product.builder()
+                .name("다른 상품")
+                .category("음식")
+                .price(2000)
+                .stockQuantity(100)
+                .build());
+        TokenUserInfo emailOnly = new TokenUserInfo(null, userInfo.getEmail(), Role.USER);
+
+        orderingService.createOrdering(List.of(new OrderingSaveReqDto(product.getId(), 1)), userInfo);
+        int byIdWithOne = countStatements(() -> assertEquals(1, orderingService.myOrders(userInfo).size()));
+        int byEmailWithOne = countStatements(() -> assertEquals(1, orderingService.myOrders(emailOnly).size()));
+
+        for (int i = 0; i < 10; i++) {
+            orderingService.createOrdering(List.of(
+                    new OrderingSaveReqDto(product.getId(), 1),
+                    new OrderingSaveReqDto(other.getId(), 2)), userInfo);
+        }
+        int byIdWithMany = countStatements(() -> assertEquals(11, orderingService.myOrders(userInfo).size()));
+        int byEmailWithMany = countStatements(() -> assertEquals(11, orderingService.myOrders(emailOnly).size()));
+
+        assertTrue(byIdWithOne > 0);
+        assertEquals(byIdWithOne, byIdWithMany, () -> "SQL: " + SqlStatementRecorder.statements());
+        assertEquals(byEmailWithOne, byEmailWithMany, () -> "SQL: " + SqlStatementRecorder.statements());
+    }
+
+    private int countStatements(Runnable action) {
+        SqlStatementRecorder.clear();
+        action.run();
+        return SqlStatementRecorder.statements().size();
+    }
+
+}
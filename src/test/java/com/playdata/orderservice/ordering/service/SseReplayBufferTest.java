@@ -0,0 +1,94 @@
+package com.playdata.orderservice.ordering.service;
+
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "sse.replay.redis-stream.enabled=true",
+        "sse.replay.buffer-size=5"
+})
+@Import(EmbeddedRedisConfig.class)
+class SseReplayBufferTest {
+
+    @Autowired
+    private SseReplayBuffer replayBuffer;
+
+    private List<Long> publish(String topic, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = replayBuffer.nextEventId();
+            replayBuffer.record(id, "ordered", List.of(topic), Map.of("seq", i));
+            replayBuffer.mirror(id, "ordered", List.of(topic), Map.of("seq", i));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("로컬 버퍼에서 밀려난 구간은 Redis Stream에서 lastEventId 이후만 찾아 준다")
+    void replayFromStream() {
+        List<Long> ids = publish("stream-kept", 8);
+
+        List<SseReplayBuffer.BufferedEvent> missed = replayBuffer.replay(List.of("stream-kept"), ids.get(0));
+
+        assertNotNull(missed);
+        assertEquals(ids.subList(1, 8), missed.stream().map(SseReplayBuffer.BufferedEvent::getId).toList());
+        assertInstanceOf(SseReplayBuffer.RawJson.class, missed.get(0).getData());
+    }
+
+    @Test
+    @DisplayName("Redis Stream에서도 lastEventId가 잘려 나갔으면 null (목록을 다시 불러와야 함)")
+    void trimmedStreamRequiresResync() {
+        List<Long> ids = publish("stream-trimmed", 300);
+
+        assertNull(replayBuffer.replay(List.of("stream-trimmed"), ids.get(0)));
+    }
+
+    @Test
+    @DisplayName("전송 큐에서 버려진 이벤트는 Redis Stream에서 찾아 주고, 건너뛰지 않는다")
+    void droppedEventReplayedFromStream() {
+        List<Long> before = publish("stream-dropped", 2);
+        // 발행 서버가 스트림에는 남겼지만 전송 큐가 넘쳐서 로컬 버퍼에는 기록되지 않은 이벤트
+        long dropped = replayBuffer.nextEventId();
+        replayBuffer.mirror(dropped, "ordered", List.of("stream-dropped"), Map.of("seq", "dropped"));
+        replayBuffer.markDropped(dropped, List.of("stream-dropped"));
+        List<Long> after = publish("stream-dropped", 1);
+
+        List<SseReplayBuffer.BufferedEvent> missed = replayBuffer.replay(List.of("stream-dropped"), before.get(1));
+
+        assertNotNull(missed);
+        assertEquals(List.of(dropped, after.get(0)), missed.stream().map(SseReplayBuffer.BufferedEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Redis Stream이 없으면 버려진 이벤트보다 이전 id로 재연결할 때 null (목록을 다시 불러와야 함)")
+    void droppedEventRequiresResyncWithoutStream() {
+        SseReplayBuffer localBuffer = new SseReplayBuffer(null, null);
+        ReflectionTestUtils.setField(localBuffer, "bufferSize", 5);
+        localBuffer.initialize();
+
+        long first = localBuffer.nextEventId();
+        localBuffer.record(first, "ordered", List.of("local"), Map.of("seq", 0));
+        long dropped = localBuffer.nextEventId();
+        localBuffer.markDropped(dropped, List.of("local"));
+        long last = localBuffer.nextEventId();
+        localBuffer.record(last, "ordered", List.of("local"), Map.of("seq", 2));
+
+        assertNull(localBuffer.replay(List.of("local"), first));
+        // 버려진 이벤트 이후로 재연결하면 로컬 버퍼로 충분하다.
+        assertEquals(List.of(last), localBuffer.replay(List.of("local"), dropped).stream()
+                .map(SseReplayBuffer.BufferedEvent::getId).toList());
+    }
+
+}
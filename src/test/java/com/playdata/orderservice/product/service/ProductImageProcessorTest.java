@@ -0,0 +1,96 @@
+package com.playdata.orderservice.product.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImageProcessorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path spoolDir;
+    private ProductImageProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        spoolDir = tempDir.resolve("spool");
+        processor = new ProductImageProcessor();
+        ReflectionTestUtils.setField(processor, "quality", 0.8f);
+        ReflectionTestUtils.setField(processor, "spoolDir", spoolDir.toString());
+    }
+
+    private Path png(int width, int height) throws IOException {
+        Path source = tempDir.resolve("source-" + width + "x" + height + ".png");
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+        return source;
+    }
+
+    private BufferedImage read(Path path) throws IOException {
+        BufferedImage image = ImageIO.read(path.toFile());
+        assertNotNull(image);
+        return image;
+    }
+
+    @Test
+    @DisplayName("긴 변을 변형별 최대 크기에 맞추고 비율을 유지한다")
+    void resizeKeepsAspectRatio() throws IOException {
+        Map<ProductImageProcessor.Variant, Path> wide = processor.createVariants(png(1000, 500));
+
+        BufferedImage thumbnail = read(wide.get(ProductImageProcessor.Variant.THUMBNAIL));
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(100, thumbnail.getHeight());
+        BufferedImage medium = read(wide.get(ProductImageProcessor.Variant.MEDIUM));
+        assertEquals(640, medium.getWidth());
+        assertEquals(320, medium.getHeight());
+
+        Map<ProductImageProcessor.Variant, Path> tall = processor.createVariants(png(300, 900));
+        BufferedImage tallThumbnail = read(tall.get(ProductImageProcessor.Variant.THUMBNAIL));
+        assertEquals(67, tallThumbnail.getWidth());
+        assertEquals(200, tallThumbnail.getHeight());
+
+        // 임시 파일은 spool 디렉토리에 만들어진다.
+        for (Path path : wide.values()) {
+            assertEquals(spoolDir, path.getParent());
+        }
+    }
+
+    @Test
+    @DisplayName("최대 크기보다 작은 원본은 키우지 않는다")
+    void smallImageIsNotUpscaled() throws IOException {
+        Map<ProductImageProcessor.Variant, Path> variants = processor.createVariants(png(120, 80));
+
+        assertEquals(2, variants.size());
+        for (Path path : variants.values()) {
+            BufferedImage image = read(path);
+            assertEquals(120, image.getWidth());
+            assertEquals(80, image.getHeight());
+        }
+    }
+
+    @Test
+    @DisplayName("이미지가 아닌 파일이면 변형 없이 빈 결과를 리턴하고 파일을 남기지 않는다")
+    void nonImageReturnsEmpty() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("not-image.txt"), "hello");
+
+        Map<ProductImageProcessor.Variant, Path> variants = processor.createVariants(source);
+
+        assertTrue(variants.isEmpty());
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+}
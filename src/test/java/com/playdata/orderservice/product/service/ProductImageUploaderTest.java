@@ -0,0 +1,91 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.common.storage.LocalStorageService;
+import com.playdata.orderservice.product.dto.ProductSaveReqDto;
+import com.playdata.orderservice.product.entity.ImageStatus;
+import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+// 업로드 스레드 1개, 큐 1개로 풀을 가득 채워서 넘친 업로드도 결국 READY가 되는지 확인
+@SpringBootTest(properties = {
+        "product.image.upload.pool-size=1",
+        "product.image.upload.queue-capacity=1",
+        "product.image.upload.recovery-interval-ms=300",
+        "product.image.spool-dir=build/test-spool-saturated"
+})
+@Import(EmbeddedRedisConfig.class)
+class ProductImageUploaderTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @SpyBean
+    private LocalStorageService storageService;
+
+    @Test
+    @DisplayName("큐가 가득 차도 요청 스레드에서 올리지 않고, 넘친 업로드는 recover()가 다시 올려서 모두 READY가 된다")
+    void saturatedPoolEndsReady() throws Exception {
+        // 업로드 한 건을 느리게 만들어서 풀이 넘치게 하고, 어느 스레드에서 올렸는지 기록
+        Thread testThread = Thread.currentThread();
+        Set<Thread> uploadThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            uploadThreads.add(Thread.currentThread());
+            Thread.sleep(200);
+            return invocation.callRealMethod();
+        }).when(storageService).upload(any(Path.class), anyString(), any());
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Product product = productService.productCreate(ProductSaveReqDto.builder()
+                    .name("상품" + i)
+                    .category("잡화")
+                    .price(1000)
+                    .stockQuantity(10)
+                    .productImage(new MockMultipartFile("productImage", "../내 이미지 #" + i + "?.TXT",
+                            "text/plain", ("image" + i).getBytes()))
+                    .build());
+            ids.add(product.getId());
+        }
+
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < deadline && !allReady(ids)) {
+            Thread.sleep(100);
+        }
+        for (Long id : ids) {
+            Product product = productRepository.findById(id).orElseThrow();
+            assertEquals(ImageStatus.READY, product.getImageStatus(), "product " + id);
+            // 원래 파일명은 쓰지 않고 "UUID.확장자"로 저장한다.
+            assertTrue(product.getImagePath().matches(".*/images/[0-9a-f-]{36}\\.txt"), product.getImagePath());
+        }
+        // 요청(테스트) 스레드에서는 한 번도 올리지 않았다.
+        assertFalse(uploadThreads.contains(testThread));
+    }
+
+    private boolean allReady(List<Long> ids) {
+        return productRepository.findAllById(ids).stream()
+                .allMatch(product -> product.getImageStatus() == ImageStatus.READY);
+    }
+
+}
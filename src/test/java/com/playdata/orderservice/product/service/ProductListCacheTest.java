@@ -0,0 +1,78 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.product.dto.CachedProductPage;
+import com.playdata.orderservice.product.dto.ProductResDto;
+import com.playdata.orderservice.product.dto.ProductStockChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(EmbeddedRedisConfig.class)
+class ProductListCacheTest {
+
+    @Autowired
+    private ProductListCache productListCache;
+
+    // 테스트마다 다른 상품 id와 캐시 키를 써서 다른 테스트와 겹치지 않게 한다.
+    private final long productId = 900_000L + (UUID.randomUUID().getLeastSignificantBits() & 0xffff);
+    private final String paramKey = "test:" + UUID.randomUUID();
+
+    private CachedProductPage page(int stockQuantity) {
+        ProductResDto dto = ProductResDto.builder()
+                .id(productId)
+                .name("상품")
+                .stockQuantity(stockQuantity)
+                .build();
+        return CachedProductPage.builder().content(List.of(dto)).total(1L).build();
+    }
+
+    @Test
+    @DisplayName("불러오는 사이에 재고 변경 무효화가 끝났다면, 불러온 (낡은) 페이지는 캐시에 남기지 않는다")
+    void evictionDuringLoadIsNotOverwritten() {
+        AtomicInteger loads = new AtomicInteger();
+        // DB에서 재고 10을 읽은 뒤, 페이지를 리턴하기 전에 재고 변경(9)이 커밋되어 무효화됨
+        Supplier<CachedProductPage> racingLoader = () -> {
+            loads.incrementAndGet();
+            CachedProductPage stale = page(10);
+            productListCache.onStockChanged(new ProductStockChangedEvent(List.of(productId)));
+            return stale;
+        };
+
+        assertEquals(10, productListCache.get(paramKey, racingLoader).getContent().get(0).getStockQuantity());
+
+        // 다음 조회는 L1/L2 어디에서도 낡은 페이지를 받지 않고 다시 불러온다.
+        CachedProductPage fresh = productListCache.get(paramKey, () -> {
+            loads.incrementAndGet();
+            return page(9);
+        });
+        assertEquals(2, loads.get());
+        assertEquals(9, fresh.getContent().get(0).getStockQuantity());
+    }
+
+    @Test
+    @DisplayName("불러오는 사이에 무효화가 없었다면 다음 조회는 캐시에서 받는다")
+    void loadWithoutEvictionIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<CachedProductPage> loader = () -> {
+            loads.incrementAndGet();
+            return page(10);
+        };
+
+        productListCache.get(paramKey, loader);
+        productListCache.get(paramKey, loader);
+
+        assertEquals(1, loads.get());
+    }
+
+}
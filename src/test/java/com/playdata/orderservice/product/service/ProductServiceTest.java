@@ -0,0 +1,107 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.common.SqlStatementRecorder;
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.product.dto.CachedProductPage;
+import com.playdata.orderservice.product.dto.ProductResDto;
+import com.playdata.orderservice.product.dto.ProductSearchDto;
+import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 검색 결과가 max-in-clause보다 많은 넓은 검색어도 LIKE 없이 색인 id로 조회하는지 확인
+@SpringBootTest(properties = {
+        "product.search.max-in-clause=3",
+        "product.list.count-mode=EXACT"
+})
+@Import(EmbeddedRedisConfig.class)
+class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NgramProductSearchBackend searchBackend;
+
+    private String keyword;
+    private final List<Long> matchedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 테스트마다 다른 검색어를 써서 목록 캐시와 겹치지 않게 한다.
+        keyword = "키워드" + UUID.randomUUID().toString().substring(0, 8);
+        matchedIds.clear();
+        for (int i = 0; i < 10; i++) {
+            matchedIds.add(productRepository.save(Product.builder()
+                    .name(keyword + " 상품" + i)
+                    .category("잡화")
+                    .price(10_000 - i * 100)
+                    .stockQuantity(10)
+                    .build()).getId());
+        }
+        productRepository.save(Product.builder()
+                .name("관계없는 상품")
+                .category("잡화")
+                .price(500)
+                .stockQuantity(10)
+                .build());
+        searchBackend.rebuild();
+        SqlStatementRecorder.clear();
+    }
+
+    private ProductSearchDto search(String mode, String cursor) {
+        return new ProductSearchDto("name", keyword, mode, cursor);
+    }
+
+    @Test
+    @DisplayName("페이지 모드: 색인 id를 잘라서 조회하고 전체 개수는 id 수로 구한다")
+    void broadTermPage() {
+        CachedProductPage page = productService.productListPage(search(null, null), PageRequest.of(1, 4));
+
+        assertEquals(10L, page.getTotal());
+        assertEquals(matchedIds.subList(4, 8), page.getContent().stream().map(ProductResDto::getId).toList());
+        assertNoLike();
+    }
+
+    @Test
+    @DisplayName("커서 모드: 넓은 검색어도 정렬 순서대로 빠짐없이 이어서 조회한다")
+    void broadTermCursor() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CachedProductPage page = productService.productListPage(search("cursor", cursor),
+                    PageRequest.of(0, 3, Sort.by(Sort.Order.asc("price"))));
+            page.getContent().forEach(dto -> seen.add(dto.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // 가격 오름차순 = 나중에 저장한 상품부터
+        List<Long> expected = new ArrayList<>(matchedIds);
+        Collections.reverse(expected);
+        assertEquals(expected, seen);
+        assertNoLike();
+    }
+
+    private void assertNoLike() {
+        assertTrue(SqlStatementRecorder.statements().stream().noneMatch(sql -> sql.toLowerCase().contains(" like ")),
+                () -> "LIKE 검색 발생: " + SqlStatementRecorder.statements());
+    }
+
+}
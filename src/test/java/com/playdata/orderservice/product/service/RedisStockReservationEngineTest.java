@@ -0,0 +1,185 @@
+package com.playdata.orderservice.product.service;
+
+import com.playdata.orderservice.common.auth.TokenUserInfo;
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.ordering.dto.OrderingSaveReqDto;
+import com.playdata.orderservice.ordering.service.OrderingService;
+import com.playdata.orderservice.product.entity.Product;
+import com.playdata.orderservice.product.repository.ProductRepository;
+import com.playdata.orderservice.user.entity.Role;
+import com.playdata.orderservice.user.entity.User;
+import com.playdata.orderservice.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.playdata.orderservice.product.service.RedisStockReservationEngine.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// stock.engine=redis 엔진을 내장 Redis + H2로 확인
+// (RESERVE/RELEASE/LOAD 스크립트, epoch 가드, write-behind 반영)
+@SpringBootTest(properties = {
+        "stock.engine=redis",
+        "stock.redis.flush-interval-ms=3600000", // 반영은 테스트에서 직접 호출
+        "stock.redis.load-backoff-ms=1"
+})
+@Import(EmbeddedRedisConfig.class)
+class RedisStockReservationEngineTest {
+
+    @Autowired
+    private RedisStockReservationEngine engine;
+
+    @Autowired
+    private RedisStockWriteBehindFlusher flusher;
+
+    @Autowired
+    private OrderingService orderingService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate stockRedisTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product product;
+    private TokenUserInfo userInfo;
+
+    @BeforeEach
+    void setUp() {
+        stockRedisTemplate.delete(List.of(PENDING_KEY, PROCESSING_KEY));
+        product = productRepository.save(Product.builder()
+                .name("한정판")
+                .category("굿즈")
+                .price(1000)
+                .stockQuantity(10)
+                .build());
+        User user = userRepository.save(User.builder()
+                .name("주문자")
+                .email(UUID.randomUUID() + "@test.com")
+                .password("password")
+                .build());
+        userInfo = new TokenUserInfo(user.getId(), user.getEmail(), Role.USER);
+    }
+
+    private String redisStock() {
+        return stockRedisTemplate.opsForValue().get(STOCK_KEY_PREFIX + product.getId());
+    }
+
+    private Object pending() {
+        return stockRedisTemplate.opsForHash().get(PENDING_KEY, String.valueOf(product.getId()));
+    }
+
+    private int dbStock() {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private void reserve(int quantity) {
+        engine.reserve(Map.of(product.getId(), product), Map.of(product.getId(), quantity));
+    }
+
+    @Test
+    @DisplayName("동시에 주문이 몰려도 재고보다 많이 팔리지 않는다")
+    void noOversellUnderConcurrency() throws InterruptedException {
+        int threads = 30;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    orderingService.createOrdering(
+                            List.of(new OrderingSaveReqDto(product.getId(), 1)), userInfo);
+                    success.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    soldOut.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(10, success.get());
+        assertEquals(20, soldOut.get());
+        assertEquals("0", redisStock());
+
+        flusher.flush();
+        assertEquals(0, dbStock());
+    }
+
+    @Test
+    @DisplayName("주문 트랜잭션이 롤백되면 Redis에서 차감한 재고를 되돌린다")
+    void releaseOnRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            reserve(3);
+            assertEquals("7", redisStock());
+            status.setRollbackOnly();
+        });
+
+        assertEquals("10", redisStock());
+        assertEquals("0", pending());
+    }
+
+    @Test
+    @DisplayName("차감량을 DB에 반영한 뒤 카운터를 DB 재고로 다시 맞춘다")
+    void flushThenReconcile() {
+        transactionTemplate.executeWithoutResult(status -> reserve(4));
+        assertEquals("6", redisStock());
+        assertEquals(10, dbStock());
+
+        flusher.flush();
+        assertEquals(6, dbStock());
+        assertNull(pending());
+        assertFalse(Boolean.TRUE.equals(stockRedisTemplate.hasKey(PROCESSING_KEY)));
+
+        // 카운터가 DB와 어긋난 상황 -> 다시 맞추기
+        stockRedisTemplate.opsForValue().set(STOCK_KEY_PREFIX + product.getId(), "100");
+        engine.reconcileAll();
+        assertEquals("6", redisStock());
+    }
+
+    @Test
+    @DisplayName("DB 반영 중에는 카운터를 적재하지 않고, 재고 부족이 아닌 일시적 오류로 알린다")
+    void loadWaitsForFlush() {
+        // 반영이 끝나지 않은 상태 (processing 해시가 남아 있음)
+        stockRedisTemplate.opsForHash().put(PROCESSING_KEY, "0", "0");
+
+        assertThrows(StockTemporarilyUnavailableException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> reserve(1)));
+        assertNull(redisStock());
+
+        // 반영이 끝나면 적재 후 정상 차감
+        stockRedisTemplate.delete(PROCESSING_KEY);
+        transactionTemplate.executeWithoutResult(status -> reserve(1));
+        assertEquals("9", redisStock());
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.playdata.orderservice.user.service;
+
+import com.playdata.orderservice.common.configs.EmbeddedRedisConfig;
+import com.playdata.orderservice.user.entity.Role;
+import com.playdata.orderservice.user.entity.User;
+import com.playdata.orderservice.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "jwt.refresh.reuse-grace-ms=1000")
+@Import(EmbeddedRedisConfig.class)
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private UserIdentityCache identityCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("회원")
+                .email(UUID.randomUUID() + "@test.com")
+                .password("password")
+                .build());
+    }
+
+    private String issue() {
+        return refreshTokenStore.issue(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    @Test
+    @DisplayName("같은 토큰으로 동시에 재발급하면 모두 같은 새 토큰을 받고, 허용 시간이 지난 뒤 다시 쓰면 family를 폐기한다")
+    void concurrentRefresh() throws Exception {
+        String token = issue();
+
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<String> rotated = new ArrayList<>();
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return userService.refresh(token).getRefreshToken();
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                rotated.add(future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1, rotated.stream().distinct().count());
+        assertNotEquals(token, rotated.get(0));
+
+        Thread.sleep(1100);
+        RefreshTokenStore.InvalidRefreshTokenException e = assertThrows(
+                RefreshTokenStore.InvalidRefreshTokenException.class, () -> userService.refresh(token));
+        assertEquals("REVOKED_RT", e.getMessage());
+        // 재사용이 감지된 family는 새 토큰도 쓸 수 없다.
+        assertThrows(RefreshTokenStore.InvalidRefreshTokenException.class, () -> userService.refresh(rotated.get(0)));
+    }
+
+    @Test
+    @DisplayName("재발급할 때 현재 권한을 다시 확인하고, 삭제된 회원의 토큰은 모두 폐기한다")
+    void refreshChecksCurrentUser() {
+        String token = issue();
+        String otherDevice = issue();
+
+        jdbcTemplate.update("UPDATE tbl_user SET role = 'ADMIN' WHERE id = ?", user.getId());
+        identityCache.invalidate(user.getEmail());
+
+        RefreshTokenStore.Rotation rotation = userService.refresh(token);
+        assertEquals(Role.ADMIN, rotation.getRole());
+
+        userRepository.deleteById(user.getId());
+        identityCache.invalidate(user.getEmail());
+
+        assertThrows(RefreshTokenStore.InvalidRefreshTokenException.class,
+                () -> userService.refresh(rotation.getRefreshToken()));
+        // 다른 기기의 토큰도 함께 폐기됨
+        assertThrows(RefreshTokenStore.InvalidRefreshTokenException.class,
+                () -> refreshTokenStore.rotate(otherDevice));
+    }
+
+}